@@ -1,66 +1,198 @@
 package io.github.chafficui.CrucialLib.Events;
 
 import io.github.chafficui.CrucialLib.Utils.customItems.CrucialItem;
+import io.github.chafficui.CrucialLib.Utils.customItems.HeldCrucialItems;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.inventory.PrepareItemCraftEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerInteractAtEntityEvent;
 import org.bukkit.event.player.PlayerInteractEntityEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemConsumeEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
 import org.bukkit.inventory.CraftingInventory;
+import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * Bukkit event listener that enforces {@link CrucialItem} interaction and crafting rules.
  * <p>
- * Cancels interactions with non-usable items and prevents non-allowed items from
- * being used in crafting recipes.
+ * Cancels interactions with non-usable items held in the interacting hand and prevents
+ * non-allowed items from being used in crafting recipes. Held items are resolved through
+ * {@link HeldCrucialItems}, whose entries this listener invalidates when a player's
+ * inventory changes.
  * </p>
  *
  * @see CrucialItem
  */
 public class CrucialItemEvents implements Listener {
+    private final Map<UUID, CraftingGrid> craftingGrids = new HashMap<>();
 
     @EventHandler
     private void onInteract(PlayerInteractEntityEvent event){
-        ItemStack stack = event.getPlayer().getItemOnCursor();
-        if(cancelInteractionEvent(stack)) {
+        if(cancelInteractionEvent(event.getPlayer(), event.getHand())) {
             event.setCancelled(true);
         }
     }
 
     @EventHandler
     private void onInteract(PlayerInteractEvent event){
-        ItemStack stack = event.getPlayer().getItemOnCursor();
-        if(cancelInteractionEvent(stack)) {
+        if(cancelInteractionEvent(event.getPlayer(), event.getHand())) {
             event.setCancelled(true);
         }
     }
 
     @EventHandler
     private void onInteract(PlayerInteractAtEntityEvent event){
-        ItemStack stack = event.getPlayer().getItemOnCursor();
-        if(cancelInteractionEvent(stack)) {
+        if(cancelInteractionEvent(event.getPlayer(), event.getHand())) {
             event.setCancelled(true);
         }
     }
 
-    private boolean cancelInteractionEvent(ItemStack stack){
-        if(stack.getItemMeta() != null){
-            CrucialItem item = CrucialItem.getByStack(stack);
-            return item != null && !item.isUsable;
+    private boolean cancelInteractionEvent(Player player, EquipmentSlot hand){
+        CrucialItem item = HeldCrucialItems.get(player, hand);
+        return item != null && !item.isUsable;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onHeldItemChange(PlayerItemHeldEvent event){
+        HeldCrucialItems.invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onSwapHands(PlayerSwapHandItemsEvent event){
+        HeldCrucialItems.invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onInventoryClick(InventoryClickEvent event){
+        if(event.getWhoClicked() instanceof Player player) {
+            HeldCrucialItems.invalidate(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onInventoryDrag(InventoryDragEvent event){
+        if(event.getWhoClicked() instanceof Player player) {
+            HeldCrucialItems.invalidate(player);
         }
-        return false;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onDrop(PlayerDropItemEvent event){
+        HeldCrucialItems.invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onPickup(EntityPickupItemEvent event){
+        if(event.getEntity() instanceof Player player) {
+            HeldCrucialItems.invalidate(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onItemBreak(PlayerItemBreakEvent event){
+        HeldCrucialItems.invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onConsume(PlayerItemConsumeEvent event){
+        HeldCrucialItems.invalidate(event.getPlayer());
     }
 
     @EventHandler
     private void onCrafting(PrepareItemCraftEvent event){
         CraftingInventory inventory = event.getInventory();
-        for (ItemStack stack:inventory.getStorageContents()){
-            CrucialItem item = CrucialItem.getByStack(stack);
-            if(item != null && (!item.isAllowedForCrafting || CrucialItem.getByStack(inventory.getResult()) != null)){
-                inventory.setResult(null);
+        CraftingGrid grid = craftingGrids.computeIfAbsent(event.getView().getPlayer().getUniqueId(), id -> new CraftingGrid());
+        if(grid.isBlocked(inventory.getMatrix(), inventory.getResult())){
+            inventory.setResult(null);
+        }
+    }
+
+    @EventHandler
+    private void onInventoryClose(InventoryCloseEvent event){
+        craftingGrids.remove(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler
+    private void onQuit(PlayerQuitEvent event){
+        craftingGrids.remove(event.getPlayer().getUniqueId());
+        HeldCrucialItems.remove(event.getPlayer());
+    }
+
+    /**
+     * The last crafting grid seen for one player, with the CrucialItems identified in it.
+     * PrepareItemCraftEvent fires on every slot change, often several times for the same
+     * contents; as long as the grid, the result and the registry are unchanged, the identified
+     * items are reused and no item meta is read. Only the flags of the identified items are
+     * re-checked.
+     */
+    static final class CraftingGrid {
+        private ItemStack[] matrix = new ItemStack[0];
+        private CrucialItem[] ingredients = new CrucialItem[0];
+        private ItemStack result;
+        private CrucialItem resultItem;
+        private long registryVersion = -1;
+
+        boolean isBlocked(ItemStack[] currentMatrix, ItemStack currentResult) {
+            long currentVersion = CrucialItem.getRegistryVersion();
+            boolean registryChanged = currentVersion != registryVersion;
+            registryVersion = currentVersion;
+            if(registryChanged || !sameGrid(currentMatrix)){
+                matrix = new ItemStack[currentMatrix.length];
+                ingredients = new CrucialItem[currentMatrix.length];
+                for (int i = 0; i < currentMatrix.length; i++) {
+                    matrix[i] = currentMatrix[i] == null ? null : currentMatrix[i].clone();
+                    ingredients[i] = CrucialItem.getByStack(currentMatrix[i]);
+                }
+            }
+            if(registryChanged || !sameStack(result, currentResult)){
+                result = currentResult == null ? null : currentResult.clone();
+                resultItem = CrucialItem.getByStack(currentResult);
+            }
+
+            boolean resultIsCrucialItem = resultItem != null && resultItem.isRegistered();
+            for (CrucialItem item : ingredients) {
+                if(item != null && item.isRegistered() && (!item.isAllowedForCrafting || resultIsCrucialItem)){
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean sameGrid(ItemStack[] currentMatrix) {
+            if(currentMatrix.length != matrix.length){
+                return false;
+            }
+            for (int i = 0; i < currentMatrix.length; i++) {
+                if(!sameStack(matrix[i], currentMatrix[i])){
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean sameStack(ItemStack cached, ItemStack current) {
+            boolean cachedEmpty = cached == null || cached.getType().isAir();
+            boolean currentEmpty = current == null || current.getType().isAir();
+            if(cachedEmpty || currentEmpty){
+                return cachedEmpty && currentEmpty;
             }
+            return cached.isSimilar(current);
         }
     }
 }
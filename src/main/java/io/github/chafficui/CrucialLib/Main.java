@@ -1,15 +1,23 @@
 package io.github.chafficui.CrucialLib;
 
 import io.github.chafficui.CrucialLib.Events.CrucialItemEvents;
+import io.github.chafficui.CrucialLib.Utils.CrucialKeys;
 import io.github.chafficui.CrucialLib.Utils.Server;
 import io.github.chafficui.CrucialLib.Utils.Stats;
+import io.github.chafficui.CrucialLib.Utils.customItems.CrucialItemIds;
+import io.github.chafficui.CrucialLib.Utils.customItems.HeadTextureCache;
+import io.github.chafficui.CrucialLib.Utils.customItems.InventorySweeper;
+import io.github.chafficui.CrucialLib.Utils.customItems.Item;
 import io.github.chafficui.CrucialLib.Utils.player.inventory.InventoryListener;
+import io.github.chafficui.CrucialLib.Utils.player.inventory.Page;
 import io.github.chafficui.CrucialLib.exceptions.CrucialException;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -36,6 +44,12 @@ public class Main extends JavaPlugin {
                 ex.printStackTrace();
             }
         }
+        CrucialKeys.init(this);
+        CrucialItemIds.load(new File(getDataFolder(), "ids.yml"));
+        HeadTextureCache.load(new File(getDataFolder(), "heads.yml"));
+        InventorySweeper.setBudgetMicros(getConfig().getLong("settings.SWEEP_BUDGET_MICROS"));
+        InventorySweeper.setIntervalTicks(getConfig().getInt("settings.SWEEP_INTERVAL_TICKS"));
+        Item.setQuiet(getConfig().getBoolean("settings.QUIET_RECIPES"));
         registerEvents(new CrucialItemEvents(), new InventoryListener());
         if(getConfig().getBoolean("settings.SHARE_STATS")) {
             stats = new Stats(this, 9549);
@@ -48,6 +62,20 @@ public class Main extends JavaPlugin {
     public void onDisable() {
         // Plugin shutdown logic
         Bukkit.getScheduler().cancelTasks(this);
+        InventorySweeper.stop();
+        Page.releaseAll();
+        try {
+            CrucialItemIds.save(new File(getDataFolder(), "ids.yml"));
+        } catch (IOException e) {
+            Server.error("Could not save ids.yml: " + e.getMessage());
+        }
+        try {
+            HeadTextureCache.save(new File(getDataFolder(), "heads.yml"));
+        } catch (IOException e) {
+            Server.error("Could not save heads.yml: " + e.getMessage());
+        }
+        HeadTextureCache.clear();
+        CrucialKeys.invalidate();
         Server.log(ChatColor.DARK_GREEN + getDescription().getName() + " is now disabled.");
     }
 
@@ -67,11 +95,27 @@ public class Main extends JavaPlugin {
         return version;
     }
 
+    /**
+     * Loads {@code options.yml} from the data folder, adds missing defaults and writes it back.
+     * A file that cannot be parsed is left as it is and the defaults are used.
+     */
     private void setupConfig() throws IOException {
+        File file = new File(getDataFolder(), "options.yml");
         getConfig().options().header(getDescription().getName() + " (Version: " + version + ") by "
                 + getDescription().getAuthors());
         getConfig().addDefault("settings.SHARE_STATS", true);
+        getConfig().addDefault("settings.SWEEP_BUDGET_MICROS", 500);
+        getConfig().addDefault("settings.SWEEP_INTERVAL_TICKS", 100);
+        getConfig().addDefault("settings.QUIET_RECIPES", false);
         getConfig().options().copyDefaults(true);
-        getConfig().save("options.yml");
+        if (file.exists()) {
+            try {
+                getConfig().load(file);
+            } catch (InvalidConfigurationException e) {
+                Server.error("Could not read options.yml, using the defaults: " + e.getMessage());
+                return;
+            }
+        }
+        getConfig().save(file);
     }
 }
@@ -0,0 +1,116 @@
+package io.github.chafficui.CrucialLib.Utils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Shared handle to the CrucialLib plugin instance and the {@link NamespacedKey}s
+ * CrucialLib uses to tag items.
+ *
+ * <p>The handle and keys are created once when CrucialLib enables and dropped when it
+ * disables, so identifying an item never looks up the plugin or allocates a key.
+ * If a key is requested while the cache is empty (e.g. before CrucialLib finished
+ * enabling), it is resolved from the plugin manager and cached.</p>
+ */
+public class CrucialKeys {
+    private static volatile JavaPlugin plugin;
+    private static volatile NamespacedKey itemIdKey;
+    private static volatile NamespacedKey legacyItemIdKey;
+    private static volatile NamespacedKey inventoryItemKey;
+    private static volatile NamespacedKey inventoryItemSlotKey;
+
+    /**
+     * Caches the plugin handle and creates all keys. Called by CrucialLib on enable.
+     *
+     * @param crucialLib the CrucialLib plugin instance
+     */
+    public static void init(JavaPlugin crucialLib) {
+        legacyItemIdKey = new NamespacedKey(crucialLib, "crucialitem_id");
+        itemIdKey = new NamespacedKey(crucialLib, "crucialitem_uid");
+        inventoryItemKey = new NamespacedKey(crucialLib, "inventoryitem");
+        inventoryItemSlotKey = new NamespacedKey(crucialLib, "inventoryitem_slot");
+        plugin = crucialLib;
+    }
+
+    /**
+     * Drops the cached plugin handle and keys. Called by CrucialLib on disable.
+     */
+    public static void invalidate() {
+        plugin = null;
+        itemIdKey = null;
+        legacyItemIdKey = null;
+        inventoryItemKey = null;
+        inventoryItemSlotKey = null;
+    }
+
+    /**
+     * Returns the CrucialLib plugin instance.
+     *
+     * @return the CrucialLib {@link JavaPlugin}
+     */
+    public static JavaPlugin getPlugin() {
+        JavaPlugin cached = plugin;
+        if (cached == null) {
+            init((JavaPlugin) Bukkit.getPluginManager().getPlugin("CrucialLib"));
+            cached = plugin;
+        }
+        return cached;
+    }
+
+    /**
+     * Returns the key of the binary CrucialItem id tag.
+     *
+     * @return the {@code cruciallib:crucialitem_uid} key
+     */
+    public static NamespacedKey getItemIdKey() {
+        NamespacedKey key = itemIdKey;
+        if (key == null) {
+            getPlugin();
+            key = itemIdKey;
+        }
+        return key;
+    }
+
+    /**
+     * Returns the key of the legacy string CrucialItem id tag.
+     *
+     * @return the {@code cruciallib:crucialitem_id} key
+     */
+    public static NamespacedKey getLegacyItemIdKey() {
+        NamespacedKey key = legacyItemIdKey;
+        if (key == null) {
+            getPlugin();
+            key = legacyItemIdKey;
+        }
+        return key;
+    }
+
+    /**
+     * Returns the key of the marker tag placed on GUI {@code InventoryItem}s.
+     *
+     * @return the {@code cruciallib:inventoryitem} key
+     */
+    public static NamespacedKey getInventoryItemKey() {
+        NamespacedKey key = inventoryItemKey;
+        if (key == null) {
+            getPlugin();
+            key = inventoryItemKey;
+        }
+        return key;
+    }
+
+    /**
+     * Returns the key of the tag holding the slot of a GUI {@code InventoryItem}.
+     *
+     * @return the {@code cruciallib:inventoryitem_slot} key
+     */
+    public static NamespacedKey getInventoryItemSlotKey() {
+        NamespacedKey key = inventoryItemSlotKey;
+        if (key == null) {
+            getPlugin();
+            key = inventoryItemSlotKey;
+        }
+        return key;
+    }
+}
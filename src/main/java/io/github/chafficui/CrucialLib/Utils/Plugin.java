@@ -1,8 +1,5 @@
 package io.github.chafficui.CrucialLib.Utils;
 
-import io.github.chafficui.CrucialLib.Main;
-import org.bukkit.Bukkit;
-
 /**
  * Static accessor for CrucialLib plugin metadata.
  * Provides convenience methods to retrieve information about the
@@ -17,6 +14,6 @@ public class Plugin {
      * @return the current CrucialLib plugin version
      */
     public static String getVersion(){
-        return Bukkit.getPluginManager().getPlugin("CrucialLib").getDescription().getVersion();
+        return CrucialKeys.getPlugin().getDescription().getVersion();
     }
 }
@@ -1,19 +1,31 @@
 package io.github.chafficui.CrucialLib.Utils.customItems;
 
+import io.github.chafficui.CrucialLib.Utils.CrucialKeys;
+import io.github.chafficui.CrucialLib.Utils.Server;
 import io.github.chafficui.CrucialLib.exceptions.CrucialException;
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.profile.PlayerProfile;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A {@link CrucialItem} variant that uses a player head ({@link Material#PLAYER_HEAD})
- * as its base material, skinned to a specific player via their {@link UUID}.
+ * as its base material, skinned to a specific player via their {@link UUID} or
+ * directly with a texture.
  *
  * <p>The head owner UUID determines whose skin is applied to the skull item.
- * It must be set (non-{@code null}) before the item is registered; otherwise,
- * {@link #registerRecipe()} will throw a {@link CrucialException}.
+ * Decorative heads can instead be given a texture (a skin URL, texture hash or base64
+ * {@code textures} value); their profile is built once, shared by all their stacks and
+ * needs no player lookup. Either an owner or a texture must be set before the item is
+ * registered; otherwise, {@link #registerRecipe()} will throw a {@link CrucialException}.
  *
  * <p>Example usage:
  * <pre>{@code
@@ -22,14 +34,24 @@ import java.util.UUID;
  * CrucialHead head = new CrucialHead("Trophy", ownerUuid,
  *     List.of("A rare trophy"), recipe, "decoration", true, true, false);
  * head.register();
+ *
+ * CrucialHead globe = new CrucialHead("Globe", "http://textures.minecraft.net/texture/...",
+ *     List.of("A decorative globe"), recipe, "decoration", true, true, false);
  * }</pre>
  *
  * @see CrucialItem
- * @see Stack#getStack(UUID, String, List)
+ * @see HeadTextureCache
  */
 public class CrucialHead extends CrucialItem {
+    /** Registered heads whose skin was resolved and whose recipe is reloaded on the next tick. */
+    private static final Set<CrucialHead> RESOLVED_HEADS = new LinkedHashSet<>();
+    /** Delay before the skin of a registered head is looked up again after a failed lookup. */
+    static final long RETRY_DELAY_TICKS = 20 * 60;
+
     /** The UUID of the player whose skin is applied to the head. May be {@code null} until set. */
     protected UUID headOwner;
+    /** The texture applied to the head instead of an owner's skin, or {@code null}. */
+    protected String texture;
 
     /**
      * Creates a minimal CrucialHead with only a type label.
@@ -63,6 +85,61 @@ public class CrucialHead extends CrucialItem {
         this.headOwner = headOwner;
     }
 
+    /**
+     * Creates a fully configured keyed CrucialHead. Its id is derived from the key, so stacks
+     * of this head keep resolving after a restart.
+     *
+     * @param key                 a stable key for this item; {@code null} gives the item a random id
+     * @param name                the display name of the item
+     * @param headOwner           the UUID of the player whose skin is applied to the head
+     * @param lore                lore lines displayed below the item name (may be empty)
+     * @param recipe              9-element array of material names for the 3x3 shaped crafting recipe
+     * @param type                a category label (e.g. {@code "decoration"})
+     * @param isCraftable         whether to register a crafting recipe for this item
+     * @param isUsable            whether interactions with this item are allowed
+     * @param isAllowedForCrafting whether this item can be used as an ingredient in other recipes
+     * @see CrucialItemIds
+     */
+    public CrucialHead(NamespacedKey key, String name, UUID headOwner, List<String> lore, String[] recipe, String type, boolean isCraftable, boolean isUsable, boolean isAllowedForCrafting) {
+        super(key, name, Material.PLAYER_HEAD, lore, recipe, type, isCraftable, isUsable, isAllowedForCrafting);
+        this.headOwner = headOwner;
+    }
+
+    /**
+     * Creates a fully configured CrucialHead skinned with a texture. No player is looked up.
+     *
+     * @param name                the display name of the item
+     * @param texture             a skin URL, a texture hash or a base64 {@code textures} property value
+     * @param lore                lore lines displayed below the item name (may be empty)
+     * @param recipe              9-element array of material names for the 3x3 shaped crafting recipe
+     * @param type                a category label (e.g. {@code "decoration"})
+     * @param isCraftable         whether to register a crafting recipe for this item
+     * @param isUsable            whether interactions with this item are allowed
+     * @param isAllowedForCrafting whether this item can be used as an ingredient in other recipes
+     */
+    public CrucialHead(String name, String texture, List<String> lore, String[] recipe, String type, boolean isCraftable, boolean isUsable, boolean isAllowedForCrafting) {
+        this(null, name, texture, lore, recipe, type, isCraftable, isUsable, isAllowedForCrafting);
+    }
+
+    /**
+     * Creates a fully configured keyed CrucialHead skinned with a texture. No player is looked up.
+     *
+     * @param key                 a stable key for this item; {@code null} gives the item a random id
+     * @param name                the display name of the item
+     * @param texture             a skin URL, a texture hash or a base64 {@code textures} property value
+     * @param lore                lore lines displayed below the item name (may be empty)
+     * @param recipe              9-element array of material names for the 3x3 shaped crafting recipe
+     * @param type                a category label (e.g. {@code "decoration"})
+     * @param isCraftable         whether to register a crafting recipe for this item
+     * @param isUsable            whether interactions with this item are allowed
+     * @param isAllowedForCrafting whether this item can be used as an ingredient in other recipes
+     * @see CrucialItemIds
+     */
+    public CrucialHead(NamespacedKey key, String name, String texture, List<String> lore, String[] recipe, String type, boolean isCraftable, boolean isUsable, boolean isAllowedForCrafting) {
+        super(key, name, Material.PLAYER_HEAD, lore, recipe, type, isCraftable, isUsable, isAllowedForCrafting);
+        this.texture = texture;
+    }
+
     /**
      * Returns the UUID of the player whose skin is applied to the head.
      *
@@ -73,36 +150,152 @@ public class CrucialHead extends CrucialItem {
     }
 
     /**
-     * Creates and registers the shaped crafting recipe for this head item.
-     * The head owner must be non-{@code null}; otherwise, a {@link CrucialException}
+     * Returns the texture applied to the head instead of an owner's skin.
+     *
+     * @return the texture, or {@code null} if the head is skinned by its owner
+     */
+    public String getTexture() {
+        return texture;
+    }
+
+    /**
+     * Checks that a head owner or a valid texture is set before validating material and recipe.
+     *
+     * @throws CrucialException if neither a head owner nor a texture is set (error 008),
+     *                          or if the texture, material or recipe is invalid (error 002)
+     */
+    @Override
+    protected void validate() throws CrucialException {
+        checkSkin();
+        super.validate();
+    }
+
+    /**
+     * Creates and registers the recipe for this head item.
+     * A head owner or a texture must be set; otherwise, a {@link CrucialException}
      * with error code 008 is thrown.
      *
-     * @throws CrucialException if the head owner is {@code null} (error 008),
-     *                          or if the recipe could not be created (error 002)
-     * @see Item#createItem(String, String, ItemStack, String[])
+     * @throws CrucialException if neither a head owner nor a texture is set (error 008),
+     *                          or if the texture is invalid or the recipe could not be created (error 002)
+     * @see Item#createItem(String, String, ItemStack, CrucialRecipe)
      */
     @Override
     protected void registerRecipe() throws CrucialException {
-        if(headOwner != null) {
-            ItemStack stack = applyId(Stack.getStack(headOwner, name, lore), this.id);
-            this.namespacedKey = Item.createItem(id + type, name, stack, recipe);
-        } else {
+        checkSkin();
+        super.registerRecipe();
+    }
+
+    private void checkSkin() throws CrucialException {
+        if(texture != null) {
+            if(HeadTextureCache.getTextureProfile(texture) == null) {
+                throw new CrucialException(2);
+            }
+        } else if(headOwner == null) {
             throw new CrucialException(8);
         }
     }
 
     /**
-     * Creates a new {@link ItemStack} for this head item with the correct
+     * Builds a new {@link ItemStack} for this head item with the correct
      * display name, lore, player skin, and embedded CrucialItem UUID.
      *
-     * @return a new ItemStack representing this head, or {@code null} if this
-     *         item is not registered or the head owner is {@code null}
+     * <p>The skin comes from {@link HeadTextureCache}. Textured heads use their shared
+     * texture profile. If an owner's skin is not known yet, a plain player head is returned
+     * as a placeholder; once the skin is resolved, the prototype is rebuilt and, if this head
+     * is registered, its recipe is reloaded in a batch with the other heads resolved in the
+     * same tick. If the lookup fails, it is retried every {@link #RETRY_DELAY_TICKS} ticks
+     * while the head is registered.
+     *
+     * @return a new ItemStack representing this head, or {@code null} if neither a head owner
+     * nor a valid texture is set
      */
     @Override
-    public ItemStack getItemStack() {
-        if(isRegistered && headOwner != null) {
-            return applyId(Stack.getStack(headOwner, name, lore), this.id);
+    protected ItemStack buildItemStack() {
+        if(texture != null) {
+            PlayerProfile profile = HeadTextureCache.getTextureProfile(texture);
+            return profile == null ? null : applyId(Stack.getStackFromProfile(profile, name, lore), this.id);
+        }
+        if(headOwner != null) {
+            UUID owner = headOwner;
+            // Only known owners go through getProfile, which would otherwise start a lookup of its own.
+            PlayerProfile profile = HeadTextureCache.isResolved(owner) ? HeadTextureCache.getProfile(owner) : null;
+            if(profile == null) {
+                CompletableFuture<PlayerProfile> lookup = HeadTextureCache.resolve(owner);
+                profile = lookup.getNow(null);
+                if(profile == null) {
+                    lookup.thenAccept(resolved -> onSkinResolved(owner, resolved));
+                }
+            }
+            return applyId(Stack.getStackFromProfile(profile, name, lore), this.id);
         }
         return null;
     }
+
+    /**
+     * Swaps the placeholder for the skinned head once the owner's skin is known. The stack
+     * is rebuilt right away; the recipe is reloaded on the next tick together with every
+     * other head resolved until then. If the lookup failed, the placeholder is kept and
+     * another lookup is scheduled. Runs on the main thread.
+     */
+    private void onSkinResolved(UUID owner, PlayerProfile profile) {
+        if(!owner.equals(headOwner)) {
+            return;
+        }
+        if(profile == null) {
+            // Registering builds the stack before the head counts as registered, so that is checked on retry.
+            if(CrucialKeys.getPlugin().isEnabled()) {
+                Bukkit.getScheduler().runTaskLater(CrucialKeys.getPlugin(), () -> retryLookup(owner), RETRY_DELAY_TICKS);
+            }
+            return;
+        }
+        invalidateItemStack();
+        if(!isRegistered) {
+            return;
+        }
+        if(RESOLVED_HEADS.isEmpty()) {
+            if(CrucialKeys.getPlugin().isEnabled()) {
+                Bukkit.getScheduler().runTask(CrucialKeys.getPlugin(), CrucialHead::reloadResolvedHeads);
+            } else {
+                RESOLVED_HEADS.add(this);
+                reloadResolvedHeads();
+                return;
+            }
+        }
+        RESOLVED_HEADS.add(this);
+    }
+
+    private void retryLookup(UUID owner) {
+        if(isRegistered && owner.equals(headOwner)) {
+            HeadTextureCache.resolve(owner).thenAccept(resolved -> onSkinResolved(owner, resolved));
+        }
+    }
+
+    /**
+     * Drops the heads waiting for their recipe to be reloaded. Called when the texture cache
+     * is cleared, since the scheduled reload does not survive a disable.
+     */
+    static void clearResolvedHeads() {
+        RESOLVED_HEADS.clear();
+    }
+
+    /**
+     * Reloads the recipes of all heads resolved since the last call as one batch, so clients
+     * receive a single recipe update and one summary line is logged.
+     */
+    private static void reloadResolvedHeads() {
+        List<CrucialHead> heads = new ArrayList<>(RESOLVED_HEADS);
+        RESOLVED_HEADS.clear();
+        Item.beginBatch();
+        try {
+            for(CrucialHead head : heads) {
+                try {
+                    head.reload();
+                } catch (CrucialException e) {
+                    Server.error("Could not update the recipe of " + head.name + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            Item.endBatch();
+        }
+    }
 }
@@ -1,13 +1,15 @@
 package io.github.chafficui.CrucialLib.Utils.customItems;
 
+import io.github.chafficui.CrucialLib.Utils.CrucialKeys;
+import io.github.chafficui.CrucialLib.Utils.Server;
 import io.github.chafficui.CrucialLib.exceptions.CrucialException;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
-import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.*;
 
@@ -15,7 +17,10 @@ import java.util.*;
  * Represents a custom item with a unique ID, crafting recipe, and interaction flags.
  *
  * <p>Each CrucialItem is identified by a {@link UUID} stored in the item's
- * {@link org.bukkit.persistence.PersistentDataContainer}. Items must be
+ * {@link org.bukkit.persistence.PersistentDataContainer} as two longs. Stacks created by
+ * older versions carry the id as a string; they are still recognised and are rewritten
+ * to the binary format the first time they pass through {@link #getByStack} on the main
+ * thread. Items must be
  * {@linkplain #register() registered} before they can be crafted or looked up.
  *
  * <p>Example usage:
@@ -33,15 +38,26 @@ import java.util.*;
  * @see Item
  */
 public class CrucialItem {
-    /** Global registry of all currently registered CrucialItems. */
-    public final static Set<CrucialItem> CRUCIAL_ITEMS = new HashSet<>();
+    /**
+     * Global registry of all currently registered CrucialItems.
+     * This is a live view of the id index used by {@link #getById} and {@link #getByStack}.
+     * It is safe to read and iterate from any thread; iteration is weakly consistent and
+     * never throws {@link java.util.ConcurrentModificationException}.
+     */
+    public final static Set<CrucialItem> CRUCIAL_ITEMS = new CrucialItemRegistry.View();
 
-    private static JavaPlugin getPlugin() {
-        return (JavaPlugin) Bukkit.getPluginManager().getPlugin("CrucialLib");
+    /**
+     * Key of the legacy string id tag. Only read for stacks created by older versions.
+     */
+    static NamespacedKey getIdKey() {
+        return CrucialKeys.getLegacyItemIdKey();
     }
 
-    static NamespacedKey getIdKey() {
-        return new NamespacedKey(getPlugin(), "crucialitem_id");
+    /**
+     * Key of the binary id tag, stored as {@code long[]{mostSigBits, leastSigBits}}.
+     */
+    static NamespacedKey getUidKey() {
+        return CrucialKeys.getItemIdKey();
     }
 
     /**
@@ -54,23 +70,52 @@ public class CrucialItem {
     static ItemStack applyId(ItemStack stack, UUID id) {
         ItemMeta meta = stack.getItemMeta();
         if (meta != null) {
-            meta.getPersistentDataContainer().set(getIdKey(), PersistentDataType.STRING, id.toString());
+            writeId(meta.getPersistentDataContainer(), id);
             stack.setItemMeta(meta);
         }
         return stack;
     }
 
+    private static void writeId(PersistentDataContainer container, UUID id) {
+        container.set(getUidKey(), PersistentDataType.LONG_ARRAY,
+                new long[]{id.getMostSignificantBits(), id.getLeastSignificantBits()});
+        container.remove(getIdKey());
+    }
+
+    /**
+     * Reads the CrucialItem id from a container, preferring the binary tag and falling
+     * back to the legacy string tag.
+     *
+     * @return the stored id, or {@code null} if the container carries none
+     */
+    static UUID readId(PersistentDataContainer container) {
+        long[] bits = container.get(getUidKey(), PersistentDataType.LONG_ARRAY);
+        if (bits != null && bits.length == 2) {
+            return new UUID(bits[0], bits[1]);
+        }
+        String idStr = container.get(getIdKey(), PersistentDataType.STRING);
+        if (idStr != null) {
+            try {
+                return UUID.fromString(idStr);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
     /**
      * Extracts the CrucialItem UUID from an {@link ItemStack}, if present.
+     * Both the binary tag and the legacy string tag are understood.
      *
      * @param stack the item stack to inspect (may be {@code null})
      * @return the UUID stored on the stack, or {@code null} if the stack is not a CrucialItem
      */
     public static UUID getId(ItemStack stack) {
-        if (stack != null && stack.getItemMeta() != null) {
-            String idStr = stack.getItemMeta().getPersistentDataContainer().get(getIdKey(), PersistentDataType.STRING);
-            if (idStr != null) {
-                return UUID.fromString(idStr);
+        if (stack != null && stack.hasItemMeta()) {
+            ItemMeta meta = stack.getItemMeta();
+            if (meta != null) {
+                return readId(meta.getPersistentDataContainer());
             }
         }
         return null;
@@ -79,15 +124,49 @@ public class CrucialItem {
     /**
      * Looks up the registered {@link CrucialItem} that matches the given stack.
      *
+     * <p>If the stack still carries the legacy string id and belongs to a registered item,
+     * its tag is rewritten to the binary format in place. That only happens on the main
+     * thread; on other threads the stack is resolved by its legacy tag and left untouched.
+     *
+     * <p>Stacks whose material is not used by any registered item are rejected without
+     * touching their {@link ItemMeta}.
+     *
      * @param stack the item stack to look up
      * @return the matching CrucialItem, or {@code null} if not found or not registered
+     * @see #findByStack(ItemStack)
      */
     public static CrucialItem getByStack(ItemStack stack) {
-        UUID id = getId(stack);
-        if (id != null) {
-            return getById(id);
+        ItemMeta meta = candidateMeta(stack);
+        if (meta == null) {
+            return null;
         }
-        return null;
+        PersistentDataContainer container = meta.getPersistentDataContainer();
+        CrucialItem item = getById(readId(container));
+        if (item != null && container.has(getIdKey(), PersistentDataType.STRING) && Bukkit.isPrimaryThread()) {
+            writeId(container, item.getId());
+            stack.setItemMeta(meta);
+        }
+        return item;
+    }
+
+    /**
+     * Looks up the registered {@link CrucialItem} that matches the given stack without ever
+     * modifying the stack. Legacy string ids are resolved but not migrated.
+     *
+     * @param stack the item stack to look up
+     * @return the matching CrucialItem, or {@code null} if not found or not registered
+     * @see #getByStack(ItemStack)
+     */
+    public static CrucialItem findByStack(ItemStack stack) {
+        ItemMeta meta = candidateMeta(stack);
+        return meta == null ? null : getById(readId(meta.getPersistentDataContainer()));
+    }
+
+    private static ItemMeta candidateMeta(ItemStack stack) {
+        if (stack == null || !CrucialItemRegistry.isCandidate(stack.getType()) || !stack.hasItemMeta()) {
+            return null;
+        }
+        return stack.getItemMeta();
     }
 
     /**
@@ -97,12 +176,123 @@ public class CrucialItem {
      * @return the matching CrucialItem, or {@code null} if not registered
      */
     public static CrucialItem getById(UUID id) {
-        for (CrucialItem crucialItem : CRUCIAL_ITEMS) {
-            if (crucialItem.id.equals(id)) {
-                return crucialItem;
+        if (id == null) {
+            return null;
+        }
+        return CrucialItemRegistry.get(id);
+    }
+
+    /**
+     * Finds a registered CrucialItem by its stable key.
+     *
+     * @param key the key the item was created with
+     * @return the matching CrucialItem, or {@code null} if no item with this key is registered
+     * @see CrucialItemIds
+     */
+    public static CrucialItem getByKey(NamespacedKey key) {
+        if (key == null) {
+            return null;
+        }
+        CrucialItem item = getById(CrucialItemIds.peek(key));
+        return item != null && key.equals(item.key) ? item : null;
+    }
+
+    /**
+     * Returns all registered items of the given type.
+     *
+     * <p>The returned set is a read-only view that follows later registrations and
+     * unregistrations, so it can be kept and re-read (e.g. by a shop GUI) without
+     * querying again. Iterating it costs time proportional to its own size, not
+     * the size of the registry.
+     *
+     * @param type the type label, compared case-insensitively (e.g. {@code "weapon"})
+     * @return a live read-only view of the matching items; empty if none match
+     */
+    public static Set<CrucialItem> getByType(String type) {
+        if (type == null) {
+            return Collections.emptySet();
+        }
+        return CrucialItemRegistry.byType(type);
+    }
+
+    /**
+     * Returns all registered items with the given material.
+     *
+     * <p>Like {@link #getByType(String)}, the returned set is a live read-only view.
+     *
+     * @param material the base material
+     * @return a live read-only view of the matching items; empty if none match
+     */
+    public static Set<CrucialItem> getByMaterial(Material material) {
+        if (material == null) {
+            return Collections.emptySet();
+        }
+        return CrucialItemRegistry.byMaterial(material);
+    }
+
+    /**
+     * Returns a counter that changes whenever an item is registered or unregistered, or a
+     * registered item's material changes. Caches of resolved items can compare it to tell
+     * that their entries may be stale.
+     *
+     * @return the current registry version
+     */
+    public static long getRegistryVersion() {
+        return CrucialItemRegistry.version();
+    }
+
+    /**
+     * Registers many items at once.
+     *
+     * <p>Every item is {@linkplain #validate() validated} first; items that fail are
+     * skipped and reported. The recipes of the remaining items are installed as one batch:
+     * they are logged as a single summary line and clients receive a single recipe update
+     * at the end. A failing item never aborts the rest of the batch. Items that are already
+     * registered are skipped and not reported.
+     *
+     * @param items the items to register
+     * @return the items that could not be registered, mapped to the reason; empty if all succeeded
+     */
+    public static Map<CrucialItem, CrucialException> registerAll(Collection<? extends CrucialItem> items) {
+        Map<CrucialItem, CrucialException> failures = new LinkedHashMap<>();
+        List<CrucialItem> valid = new ArrayList<>(items.size());
+        Set<UUID> batchIds = new HashSet<>();
+        for (CrucialItem item : items) {
+            if (item == null || item.isRegistered) {
+                continue;
+            }
+            try {
+                if (CrucialItemRegistry.containsId(item.id) || !batchIds.add(item.id)) {
+                    throw new CrucialException(7);
+                }
+                item.validate();
+                valid.add(item);
+            } catch (CrucialException e) {
+                failures.put(item, e);
             }
         }
-        return null;
+
+        Item.beginBatch();
+        try {
+            for (CrucialItem item : valid) {
+                try {
+                    item.registerRecipe();
+                    item.isRegistered = true;
+                    CrucialItemRegistry.add(item);
+                } catch (CrucialException e) {
+                    failures.put(item, e);
+                } catch (RuntimeException e) {
+                    failures.put(item, new CrucialException(29));
+                }
+            }
+        } finally {
+            Item.endBatch();
+        }
+
+        if (!failures.isEmpty()) {
+            Server.error("Could not register " + failures.size() + " of " + items.size() + " custom items.");
+        }
+        return failures;
     }
 
     //Custom Item
@@ -114,14 +304,23 @@ public class CrucialItem {
     protected String material = "";
     /** Lore lines displayed below the item name. */
     protected List<String> lore = new ArrayList<>();
-    /** 9-element array of material names defining the 3x3 shaped crafting recipe. */
+    /**
+     * 9-element array of material names defining the 3x3 shaped crafting recipe, or {@code null}
+     * if the item uses a compiled recipe of another type.
+     */
     protected String[] recipe = new String[9];
+    /** Compiled recipe set through {@link #setRecipe(CrucialRecipe)}; {@code null} if {@link #recipe} is used. */
+    protected CrucialRecipe compiledRecipe;
     /** Unique identifier for this item, stored in the {@link org.bukkit.persistence.PersistentDataContainer}. */
     protected final UUID id;
+    /** Stable key this item's id is derived from, or {@code null} for items with a random id. */
+    protected final NamespacedKey key;
     /** A category or type label (e.g. {@code "weapon"}, {@code "tool"}). */
     protected final String type;
     /** Whether this item is currently registered with the server. */
     protected boolean isRegistered = false;
+    /** Prebuilt stack that {@link #getItemStack()} hands out clones of. Rebuilt lazily after a change. */
+    private volatile ItemStack prototype;
 
     /** Whether a crafting recipe should be registered for this item. */
     public boolean isCraftable = true;
@@ -138,7 +337,21 @@ public class CrucialItem {
      * @param type a category label for this item (e.g. {@code "weapon"})
      */
     public CrucialItem(String type) {
-        this.id = UUID.randomUUID();
+        this((NamespacedKey) null, type);
+    }
+
+    /**
+     * Creates a minimal keyed CrucialItem. Its id is derived from the key, so stacks of this
+     * item keep resolving after a restart as long as the item is created with the same key.
+     *
+     * @param key  a stable key for this item, e.g. {@code new NamespacedKey(plugin, "ruby_sword")};
+     *             {@code null} gives the item a random id
+     * @param type a category label for this item (e.g. {@code "weapon"})
+     * @see CrucialItemIds
+     */
+    public CrucialItem(NamespacedKey key, String type) {
+        this.key = key;
+        this.id = key != null ? CrucialItemIds.idFor(key) : UUID.randomUUID();
         this.type = type;
     }
 
@@ -155,7 +368,27 @@ public class CrucialItem {
      * @param isAllowedForCrafting whether this item can be used as a crafting ingredient
      */
     public CrucialItem(String name, Material material, List<String> lore, String[] recipe, String type, boolean isCraftable, boolean isUsable, boolean isAllowedForCrafting) {
-        this.id = UUID.randomUUID();
+        this(null, name, material, lore, recipe, type, isCraftable, isUsable, isAllowedForCrafting);
+    }
+
+    /**
+     * Creates a fully configured keyed CrucialItem. Its id is derived from the key, so stacks
+     * of this item keep resolving after a restart as long as the item is created with the same key.
+     *
+     * @param key                 a stable key for this item; {@code null} gives the item a random id
+     * @param name                the display name
+     * @param material            the base material
+     * @param lore                lore lines (may be empty)
+     * @param recipe              9-element array of material names for the shaped recipe
+     * @param type                a category label (e.g. {@code "weapon"})
+     * @param isCraftable         whether to register a crafting recipe
+     * @param isUsable            whether interactions with this item are allowed
+     * @param isAllowedForCrafting whether this item can be used as a crafting ingredient
+     * @see CrucialItemIds
+     */
+    public CrucialItem(NamespacedKey key, String name, Material material, List<String> lore, String[] recipe, String type, boolean isCraftable, boolean isUsable, boolean isAllowedForCrafting) {
+        this.key = key;
+        this.id = key != null ? CrucialItemIds.idFor(key) : UUID.randomUUID();
         this.name = name;
         this.lore = lore;
         this.recipe = recipe;
@@ -175,8 +408,9 @@ public class CrucialItem {
             if (Bukkit.getRecipe(namespacedKey) != null) {
                 Bukkit.removeRecipe(namespacedKey);
             }
-            CRUCIAL_ITEMS.remove(this);
+            CrucialItemRegistry.remove(this);
             isRegistered = false;
+            invalidateItemStack();
         }
     }
 
@@ -190,10 +424,10 @@ public class CrucialItem {
      */
     public void register() throws CrucialException {
         if (!isRegistered) {
-            if (!CRUCIAL_ITEMS.contains(this)) {
+            if (!CrucialItemRegistry.containsId(id)) {
                 registerRecipe();
                 isRegistered = true;
-                CRUCIAL_ITEMS.add(this);
+                CrucialItemRegistry.add(this);
             } else {
                 throw new CrucialException(7);
             }
@@ -209,18 +443,31 @@ public class CrucialItem {
     public void reload() throws CrucialException {
         if (isRegistered) {
             Bukkit.removeRecipe(namespacedKey);
+            invalidateItemStack();
             registerRecipe();
         }
     }
 
     /**
-     * Creates and registers the shaped crafting recipe with the server.
+     * Checks that this item can be registered: its material and every recipe ingredient
+     * must name an existing {@link Material}. Does not touch the server.
+     *
+     * @throws CrucialException if the material or recipe is invalid (error 002)
+     */
+    protected void validate() throws CrucialException {
+        if (material == null || Material.getMaterial(material) == null) {
+            throw new CrucialException(2);
+        }
+        getCompiledRecipe();
+    }
+
+    /**
+     * Creates and registers the recipe with the server.
      *
      * @throws CrucialException if the recipe could not be created
      */
     protected void registerRecipe() throws CrucialException {
-        ItemStack stack = applyId(Stack.getStack(Material.getMaterial(material), name, lore), this.id);
-        namespacedKey = Item.createItem(id + type, name, stack, recipe);
+        namespacedKey = Item.createItem(id + type, name, getPrototype().clone(), getCompiledRecipe());
     }
 
     /**
@@ -231,23 +478,64 @@ public class CrucialItem {
         if (isRegistered) {
             isRegistered = false;
             Bukkit.removeRecipe(namespacedKey);
-            CRUCIAL_ITEMS.remove(this);
+            CrucialItemRegistry.remove(this);
+            invalidateItemStack();
         }
     }
 
     /**
-     * Creates a new {@link ItemStack} for this item with the correct display name,
+     * Returns a new {@link ItemStack} for this item with the correct display name,
      * lore, and embedded CrucialItem UUID.
      *
+     * <p>The stack is cloned from a prototype that is built once and rebuilt only after
+     * the name, lore, material or recipe changes.
+     *
      * @return a new ItemStack, or {@code null} if this item is not registered
      */
     public ItemStack getItemStack() {
         if (isRegistered) {
-            return applyId(Stack.getStack(Material.getMaterial(material), name, lore), this.id);
+            ItemStack stack = getPrototype();
+            if (stack != null) {
+                return stack.clone();
+            }
         }
         return null;
     }
 
+    /**
+     * Returns the cached prototype stack, building it if necessary. Callers must not
+     * modify the returned stack.
+     *
+     * @return the prototype, or {@code null} if this item cannot be built yet
+     */
+    ItemStack getPrototype() {
+        ItemStack stack = prototype;
+        if (stack == null) {
+            stack = buildItemStack();
+            prototype = stack;
+        }
+        return stack;
+    }
+
+    /**
+     * Builds a fresh {@link ItemStack} for this item, tagged with its id. Subclasses
+     * override this to change how the stack is made.
+     *
+     * @return a new ItemStack, or {@code null} if this item cannot be built
+     */
+    protected ItemStack buildItemStack() {
+        return applyId(Stack.getStack(Material.getMaterial(material), name, lore), this.id);
+    }
+
+    /**
+     * Drops the cached prototype so the next {@link #getItemStack()} rebuilds it.
+     * Call this after changing state that affects the stack without going through a setter,
+     * e.g. after mutating the lore list in place.
+     */
+    protected void invalidateItemStack() {
+        prototype = null;
+    }
+
     /**
      * Sets the lore lines for this item.
      *
@@ -255,6 +543,7 @@ public class CrucialItem {
      */
     public void setLore(List<String> lore) {
         this.lore = lore;
+        invalidateItemStack();
     }
 
     /**
@@ -283,6 +572,7 @@ public class CrucialItem {
      */
     public CrucialItem setName(String name) {
         this.name = name;
+        invalidateItemStack();
         return this;
     }
 
@@ -296,20 +586,25 @@ public class CrucialItem {
     }
 
     /**
-     * Sets the material for this item.
+     * Sets the material for this item. If the item is registered, stacks of the
+     * previous material are no longer resolved by {@link #getByStack}.
      *
      * @param material the material name (e.g. {@code "DIAMOND_SWORD"})
      * @return this instance for fluent chaining
      */
     public CrucialItem setMaterial(String material) {
         this.material = material;
+        CrucialItemRegistry.updateMaterial(this);
+        invalidateItemStack();
         return this;
     }
 
     /**
-     * Returns the 9-element crafting recipe array.
+     * Returns the 9-element shaped crafting recipe array. Use {@link #getCompiledRecipe()} for
+     * recipes of other types.
      *
-     * @return the recipe material names
+     * @return the recipe material names, or {@code null} if the item uses a compiled recipe that
+     *         is not shaped
      */
     public String[] getRecipe() {
         return recipe;
@@ -323,9 +618,37 @@ public class CrucialItem {
      */
     public CrucialItem setRecipe(String[] recipe) {
         this.recipe = recipe;
+        this.compiledRecipe = null;
+        invalidateItemStack();
         return this;
     }
 
+    /**
+     * Sets a compiled recipe of any type, e.g. a shapeless, furnace or smithing recipe.
+     * A shaped recipe also sets the {@link #getRecipe() grid}; other types clear it.
+     * Call {@link #reload()} afterwards if the item is already registered.
+     *
+     * @param recipe the compiled recipe
+     * @return this instance for fluent chaining
+     */
+    public CrucialItem setRecipe(CrucialRecipe recipe) {
+        this.compiledRecipe = recipe;
+        this.recipe = recipe.getType() == CrucialRecipe.Type.SHAPED ? recipe.toGrid() : null;
+        invalidateItemStack();
+        return this;
+    }
+
+    /**
+     * Returns the recipe this item registers, compiling the shaped {@link #getRecipe() grid}
+     * unless a compiled recipe was set.
+     *
+     * @return the compiled recipe
+     * @throws CrucialException if the grid is invalid (error 002)
+     */
+    public CrucialRecipe getCompiledRecipe() throws CrucialException {
+        return compiledRecipe != null ? compiledRecipe : CrucialRecipe.shaped(recipe);
+    }
+
     /**
      * Returns the {@link NamespacedKey} for this item's crafting recipe.
      *
@@ -335,6 +658,15 @@ public class CrucialItem {
         return namespacedKey;
     }
 
+    /**
+     * Returns the stable key of this CrucialItem.
+     *
+     * @return the key, or {@code null} if the item was created without one
+     */
+    public NamespacedKey getKey() {
+        return key;
+    }
+
     /**
      * Returns the unique identifier of this CrucialItem.
      *
@@ -364,10 +696,18 @@ public class CrucialItem {
 
     @Override
     public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
         if (obj instanceof CrucialItem) {
             CrucialItem crucialItem = (CrucialItem) obj;
-            return crucialItem.id == this.id && crucialItem.type.equalsIgnoreCase(this.type);
+            return crucialItem.id.equals(this.id) && crucialItem.type.equalsIgnoreCase(this.type);
         }
         return false;
     }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
 }
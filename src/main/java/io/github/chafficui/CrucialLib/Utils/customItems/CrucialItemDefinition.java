@@ -0,0 +1,64 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.List;
+
+/**
+ * Declarative description of a {@link CrucialItem}, as read from an item file by
+ * {@link CrucialItemLoader}.
+ *
+ * <p>The fields map one-to-one onto the keys of an item entry. In YAML:
+ * <pre>{@code
+ * ruby_sword:
+ *   name: "Ruby Sword"
+ *   material: DIAMOND_SWORD
+ *   type: weapon
+ *   lore:
+ *     - "Forged from rubies"
+ *   recipe: [AIR, REDSTONE, AIR, AIR, REDSTONE, AIR, AIR, STICK, AIR]
+ *   craftable: true
+ *   usable: true
+ *   allowedForCrafting: false
+ * }</pre>
+ * JSON files use the same keys. Flags that are left out take the defaults of
+ * {@link CrucialItem}. {@code name}, {@code material}, {@code type} and {@code recipe}
+ * are required.
+ */
+public class CrucialItemDefinition {
+    /** Display name shown on the item. */
+    public String name;
+    /** Material name, e.g. {@code "DIAMOND_SWORD"}; matched case-insensitively. */
+    public String material;
+    /** A category label (e.g. {@code "weapon"}). */
+    public String type;
+    /** Lore lines; may be {@code null}. */
+    public List<String> lore;
+    /** 9 material names of the shaped recipe, in row-major order. */
+    public List<String> recipe;
+    /** Whether a crafting recipe is registered; {@code true} if unset. */
+    public Boolean craftable;
+    /** Whether players can interact with the item; {@code true} if unset. */
+    public Boolean usable;
+    /** Whether the item can be used as a crafting ingredient; {@code false} if unset. */
+    public Boolean allowedForCrafting;
+
+    /**
+     * Reads a definition from a configuration section.
+     *
+     * @param section the section of one item entry
+     * @return the definition described by the section
+     */
+    public static CrucialItemDefinition fromSection(ConfigurationSection section) {
+        CrucialItemDefinition definition = new CrucialItemDefinition();
+        definition.name = section.getString("name");
+        definition.material = section.getString("material");
+        definition.type = section.getString("type");
+        definition.lore = section.isList("lore") ? section.getStringList("lore") : null;
+        definition.recipe = section.isList("recipe") ? section.getStringList("recipe") : null;
+        definition.craftable = section.isBoolean("craftable") ? section.getBoolean("craftable") : null;
+        definition.usable = section.isBoolean("usable") ? section.getBoolean("usable") : null;
+        definition.allowedForCrafting = section.isBoolean("allowedForCrafting") ? section.getBoolean("allowedForCrafting") : null;
+        return definition;
+    }
+}
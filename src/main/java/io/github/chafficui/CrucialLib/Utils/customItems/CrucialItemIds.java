@@ -0,0 +1,154 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import io.github.chafficui.CrucialLib.Utils.Server;
+import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stable ids for keyed {@link CrucialItem}s.
+ *
+ * <p>An item created with a {@link NamespacedKey} gets the same id on every start, so
+ * stacks that are already in player inventories keep resolving through
+ * {@link CrucialItem#getByStack} after a restart. The id is derived from the key
+ * (a name-based UUID of {@code "cruciallib:<namespace>:<key>"}) unless the key was
+ * {@linkplain #pin pinned} to another id, e.g. the random id an item had before it was
+ * given a key.
+ *
+ * <p>Every id handed out is recorded in an index that CrucialLib loads from and saves to
+ * {@code ids.yml} in its data folder. Pinned ids survive restarts through this file.
+ */
+public class CrucialItemIds {
+    private static final Map<String, UUID> INDEX = new ConcurrentHashMap<>();
+    private static volatile boolean dirty = false;
+
+    /**
+     * Returns the id of the item with the given key.
+     *
+     * @param key the item key
+     * @return the pinned id of the key, or the id derived from it
+     */
+    public static UUID idFor(NamespacedKey key) {
+        String name = key.toString();
+        UUID id = INDEX.get(name);
+        if (id == null) {
+            id = INDEX.computeIfAbsent(name, CrucialItemIds::derive);
+            dirty = true;
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of the item with the given key without recording it in the index.
+     * Meant for lookups; creating an item uses {@link #idFor(NamespacedKey)}.
+     *
+     * @param key the item key
+     * @return the pinned or recorded id of the key, or the id derived from it
+     */
+    public static UUID peek(NamespacedKey key) {
+        String name = key.toString();
+        UUID id = INDEX.get(name);
+        return id != null ? id : derive(name);
+    }
+
+    /**
+     * Assigns an existing id to a key, so that stacks created before the item had a key
+     * keep resolving. Must be called before the keyed item is created.
+     *
+     * @param key the item key
+     * @param id  the id stacks of this item already carry
+     */
+    public static void pin(NamespacedKey key, UUID id) {
+        if (!id.equals(INDEX.put(key.toString(), id))) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Returns the key an id was handed out for.
+     *
+     * @param id the item id
+     * @return the key, or {@code null} if no keyed item has this id
+     */
+    public static NamespacedKey keyOf(UUID id) {
+        for (Map.Entry<String, UUID> entry : INDEX.entrySet()) {
+            if (entry.getValue().equals(id)) {
+                return NamespacedKey.fromString(entry.getKey());
+            }
+        }
+        return null;
+    }
+
+    private static UUID derive(String key) {
+        return UUID.nameUUIDFromBytes(("cruciallib:" + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Loads the index from a file, replacing entries for the keys it contains.
+     * Called by CrucialLib on enable.
+     *
+     * @param file the index file; nothing is loaded if it does not exist
+     */
+    public static void load(File file) {
+        if (!file.exists()) {
+            return;
+        }
+        YamlConfiguration config = newConfig();
+        try {
+            config.load(file);
+        } catch (IOException | InvalidConfigurationException e) {
+            Server.error("Could not read " + file.getName() + ": " + e.getMessage());
+            return;
+        }
+        for (String key : config.getKeys(false)) {
+            String value = config.getString(key);
+            try {
+                INDEX.put(key, UUID.fromString(value));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                Server.error("Ignoring invalid id for " + key + " in " + file.getName());
+            }
+        }
+        dirty = false;
+    }
+
+    /**
+     * Saves the index to a file if it changed since it was loaded or last saved.
+     * Called by CrucialLib on disable.
+     *
+     * @param file the index file
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(File file) throws IOException {
+        if (!dirty && file.exists()) {
+            return;
+        }
+        YamlConfiguration config = newConfig();
+        new TreeMap<>(INDEX).forEach((key, id) -> config.set(key, id.toString()));
+        file.getParentFile().mkdirs();
+        config.save(file);
+        dirty = false;
+    }
+
+    private static YamlConfiguration newConfig() {
+        YamlConfiguration config = new YamlConfiguration();
+        // Keys may contain '.', which is the default path separator; '|' never appears in a key.
+        config.options().pathSeparator('|');
+        return config;
+    }
+
+    /**
+     * Forgets all recorded and pinned ids.
+     */
+    public static void clear() {
+        INDEX.clear();
+        dirty = false;
+    }
+}
@@ -0,0 +1,692 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import io.github.chafficui.CrucialLib.Utils.Server;
+import io.github.chafficui.CrucialLib.exceptions.CrucialException;
+import io.github.chafficui.CrucialLib.io.Json;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Loads {@link CrucialItem}s from YAML ({@code .yml}, {@code .yaml}) and JSON ({@code .json})
+ * item files.
+ *
+ * <p>Each file maps item keys to {@link CrucialItemDefinition}s. Item keys must be valid
+ * {@link NamespacedKey} keys (lowercase letters, digits, {@code . _ - /}); every item is
+ * created with the key {@code <plugin>:<item key>}, so it keeps its id across restarts
+ * (see {@link CrucialItemIds}). Loading runs in two phases:
+ * <ol>
+ *   <li>Files are read and every definition is resolved (material and recipe lookup,
+ *       validation) in parallel on the loader's executor, off the main thread.</li>
+ *   <li>The resolved items are installed with {@link CrucialItem#registerAll} on the
+ *       main thread, so their recipes are added as one batch.</li>
+ * </ol>
+ * A broken file or definition is reported in the {@link Result} and never stops the other
+ * items from loading.
+ *
+ * <p>The loader remembers the items it loaded by key. {@link #reload(Collection)} reads the
+ * files again and only applies the differences: unchanged items keep their identity and
+ * cached stacks, items whose flags changed are updated in place, and only items whose name,
+ * lore, material or recipe changed have their recipe replaced.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * CrucialItemLoader loader = new CrucialItemLoader(this);
+ * loader.loadAsync(CrucialItemLoader.listItemFiles(new File(getDataFolder(), "items")))
+ *         .thenAccept(result -> getLogger().info("Loaded " + result.getItems().size() + " items"));
+ * }</pre>
+ *
+ * @see CrucialItemDefinition
+ */
+public class CrucialItemLoader {
+    private static final Type DEFINITIONS_TYPE = new TypeToken<Map<String, CrucialItemDefinition>>() {}.getType();
+
+    private final JavaPlugin plugin;
+    private final Executor executor;
+    private final Map<String, CrucialItem> loaded = new LinkedHashMap<>();
+    private final Map<String, String> sources = new LinkedHashMap<>();
+
+    /**
+     * Creates a loader that parses on the common fork-join pool.
+     *
+     * @param plugin the plugin whose scheduler installs the items on the main thread
+     */
+    public CrucialItemLoader(JavaPlugin plugin) {
+        this(plugin, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a loader that parses on the given executor.
+     *
+     * @param plugin   the plugin whose scheduler installs the items on the main thread
+     * @param executor the executor that reads and resolves item files
+     */
+    public CrucialItemLoader(JavaPlugin plugin, Executor executor) {
+        this.plugin = plugin;
+        this.executor = executor;
+    }
+
+    /**
+     * Lists the item files in a directory, sorted by name.
+     *
+     * @param directory the directory to search (not recursive)
+     * @return the {@code .yml}, {@code .yaml} and {@code .json} files; empty if the directory does not exist
+     */
+    public static List<File> listItemFiles(File directory) {
+        File[] files = directory.listFiles(file -> file.isFile() && isItemFile(file));
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+
+    private static boolean isItemFile(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        return name.endsWith(".yml") || name.endsWith(".yaml") || name.endsWith(".json");
+    }
+
+    /**
+     * Reads and resolves the files off the main thread, then registers the items on the
+     * main thread. May be called from any thread.
+     *
+     * @param files the item files to load
+     * @return a future completed on the main thread once the items are registered
+     */
+    public CompletableFuture<Result> loadAsync(Collection<File> files) {
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        prepare(files).whenComplete((result, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+                return;
+            }
+            try {
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    try {
+                        install(result);
+                        future.complete(result);
+                    } catch (RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Reads and resolves the files in parallel, waits for them and registers the items on
+     * the calling thread. Must be called from the main thread, e.g. in {@code onEnable}.
+     *
+     * @param files the item files to load
+     * @return the loaded items and errors
+     */
+    public Result load(Collection<File> files) {
+        Result result = prepare(files).join();
+        install(result);
+        return result;
+    }
+
+    /**
+     * Reads the files again and applies only the differences to the items loaded before.
+     * Must be called from the main thread.
+     *
+     * <ul>
+     *   <li>New keys are registered.</li>
+     *   <li>Keys that are no longer defined are unregistered.</li>
+     *   <li>Items whose name, lore, material or recipe changed are updated in place and their
+     *       recipe is replaced.</li>
+     *   <li>Items whose only changes are flags ({@code craftable}, {@code usable},
+     *       {@code allowedForCrafting}) are updated in place without touching the recipe.</li>
+     *   <li>Items whose type changed are replaced by a new item.</li>
+     *   <li>Items that fail to load, or whose new recipe cannot be registered, keep their
+     *       previous state.</li>
+     * </ul>
+     *
+     * @param files the item files to load
+     * @return what changed and how long each phase took
+     */
+    public ReloadReport reload(Collection<File> files) {
+        long start = System.nanoTime();
+        Result parsed = prepare(files).join();
+        return apply(parsed, System.nanoTime() - start);
+    }
+
+    /**
+     * Like {@link #reload(Collection)}, but reads the files off the main thread and applies
+     * the differences on the main thread. May be called from any thread.
+     *
+     * @param files the item files to load
+     * @return a future completed on the main thread once the differences are applied
+     */
+    public CompletableFuture<ReloadReport> reloadAsync(Collection<File> files) {
+        long start = System.nanoTime();
+        CompletableFuture<ReloadReport> future = new CompletableFuture<>();
+        prepare(files).whenComplete((parsed, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+                return;
+            }
+            long parseNanos = System.nanoTime() - start;
+            try {
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    try {
+                        future.complete(apply(parsed, parseNanos));
+                    } catch (RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Returns the items this loader has loaded, by key.
+     *
+     * @return an unmodifiable map of item keys to registered items
+     */
+    public Map<String, CrucialItem> getLoadedItems() {
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    /**
+     * Runs the parallel phase: reads every file and resolves every definition.
+     */
+    CompletableFuture<Result> prepare(Collection<File> files) {
+        List<CompletableFuture<List<Entry>>> perFile = new ArrayList<>(files.size());
+        for (File file : files) {
+            perFile.add(CompletableFuture.supplyAsync(() -> read(file), executor)
+                    .thenCompose(this::resolveAll));
+        }
+        return CompletableFuture.allOf(perFile.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            Result result = new Result();
+            for (CompletableFuture<List<Entry>> entries : perFile) {
+                for (Entry entry : entries.join()) {
+                    result.accept(entry);
+                }
+            }
+            return result;
+        });
+    }
+
+    private CompletableFuture<List<Entry>> resolveAll(List<Entry> entries) {
+        List<CompletableFuture<Entry>> resolved = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            resolved.add(entry.definition == null
+                    ? CompletableFuture.completedFuture(entry)
+                    : CompletableFuture.supplyAsync(() -> resolve(entry), executor));
+        }
+        return CompletableFuture.allOf(resolved.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<Entry> result = new ArrayList<>(resolved.size());
+            for (CompletableFuture<Entry> entry : resolved) {
+                result.add(entry.join());
+            }
+            return result;
+        });
+    }
+
+    private static List<Entry> read(File file) {
+        String source = file.getName();
+        List<Entry> entries = new ArrayList<>();
+        try {
+            if (file.getName().toLowerCase(Locale.ROOT).endsWith(".json")) {
+                Map<String, CrucialItemDefinition> definitions = Json.fromJson(file.getPath(), DEFINITIONS_TYPE);
+                if (definitions != null) {
+                    definitions.forEach((key, definition) -> entries.add(new Entry(source, key, definition)));
+                }
+            } else {
+                YamlConfiguration config = new YamlConfiguration();
+                config.load(file);
+                for (String key : config.getKeys(false)) {
+                    ConfigurationSection section = config.getConfigurationSection(key);
+                    if (section == null) {
+                        entries.add(Entry.failed(source, key, "entry is not a section"));
+                    } else {
+                        entries.add(new Entry(source, key, CrucialItemDefinition.fromSection(section)));
+                    }
+                }
+            }
+        } catch (IOException | InvalidConfigurationException | JsonParseException e) {
+            entries.add(Entry.failed(source, null, "could not read file: " + e.getMessage()));
+        }
+        return entries;
+    }
+
+    private Entry resolve(Entry entry) {
+        try {
+            entry.item = toItem(new NamespacedKey(plugin, entry.key), entry.definition);
+        } catch (IllegalArgumentException | CrucialException e) {
+            entry.error = e.getMessage();
+        }
+        return entry;
+    }
+
+    /**
+     * Builds an unregistered item from a definition, resolving its material and recipe.
+     *
+     * @param key        the item's stable key, from which its id is derived
+     * @param definition the definition to build
+     * @return the resolved item
+     * @throws IllegalArgumentException if a required field is missing or a material is unknown
+     * @throws CrucialException         if the built item does not pass {@link CrucialItem#validate()}
+     */
+    static CrucialItem toItem(NamespacedKey key, CrucialItemDefinition definition) throws CrucialException {
+        if (definition.name == null) {
+            throw new IllegalArgumentException("missing name");
+        }
+        if (definition.type == null) {
+            throw new IllegalArgumentException("missing type");
+        }
+        Material material = resolveMaterial(definition.material, "material");
+        if (!material.isItem()) {
+            throw new IllegalArgumentException("material '" + definition.material + "' is not an item");
+        }
+        if (definition.recipe == null || definition.recipe.size() != 9) {
+            throw new IllegalArgumentException("recipe must have 9 entries");
+        }
+        String[] recipe = new String[9];
+        for (int i = 0; i < 9; i++) {
+            recipe[i] = resolveMaterial(definition.recipe.get(i), "recipe slot " + (i + 1)).name();
+        }
+        List<String> lore = definition.lore == null ? new ArrayList<>() : new ArrayList<>(definition.lore);
+        CrucialItem item = new CrucialItem(key, definition.name, material, lore, recipe, definition.type,
+                definition.craftable == null || definition.craftable,
+                definition.usable == null || definition.usable,
+                definition.allowedForCrafting != null && definition.allowedForCrafting);
+        item.validate();
+        return item;
+    }
+
+    private static Material resolveMaterial(String name, String field) {
+        if (name == null) {
+            throw new IllegalArgumentException("missing " + field);
+        }
+        Material material = Material.matchMaterial(name);
+        if (material == null) {
+            throw new IllegalArgumentException("unknown " + field + " '" + name + "'");
+        }
+        return material;
+    }
+
+    /**
+     * Runs the main-thread phase: registers the resolved items in one batch.
+     */
+    void install(Result result) {
+        registerAll(result.items, result.errors);
+        loaded.putAll(result.items);
+        result.items.keySet().forEach(key -> sources.put(key, result.sources.get(key)));
+        logErrors(result.errors);
+    }
+
+    /**
+     * Registers items in one batch. Items that fail are moved from {@code items} to {@code errors}.
+     */
+    private static void registerAll(Map<String, CrucialItem> items, Map<String, String> errors) {
+        Map<CrucialItem, String> keys = new LinkedHashMap<>();
+        items.forEach((key, item) -> keys.put(item, key));
+        Map<CrucialItem, CrucialException> failures = CrucialItem.registerAll(keys.keySet());
+        failures.forEach((item, error) -> {
+            String key = keys.get(item);
+            items.remove(key);
+            errors.put(key, error.getMessage());
+        });
+    }
+
+    private static void logErrors(Map<String, String> errors) {
+        if (!errors.isEmpty()) {
+            Server.error("Could not load " + errors.size() + " custom item definitions:");
+            errors.forEach((key, error) -> Server.error("  " + key + ": " + error));
+        }
+    }
+
+    /**
+     * Runs the main-thread phase of a reload: diffs the parsed items against the loaded ones
+     * and applies the differences.
+     */
+    private ReloadReport apply(Result parsed, long parseNanos) {
+        ReloadReport report = new ReloadReport();
+        report.parseNanos = parseNanos;
+        report.errors.putAll(parsed.errors);
+
+        long diffStart = System.nanoTime();
+        Map<String, CrucialItem> added = new LinkedHashMap<>();
+        Map<String, CrucialItem> retyped = new LinkedHashMap<>();
+        Map<String, CrucialItem> recipeChanges = new LinkedHashMap<>();
+        Map<String, CrucialItem> flagChanges = new LinkedHashMap<>();
+        parsed.items.forEach((key, fresh) -> {
+            CrucialItem current = loaded.get(key);
+            if (current == null || !current.isRegistered()) {
+                added.put(key, fresh);
+            } else if (!Objects.equals(current.getType(), fresh.getType())) {
+                retyped.put(key, fresh);
+            } else if (!sameRecipe(current, fresh)) {
+                recipeChanges.put(key, fresh);
+            } else if (!sameFlags(current, fresh)) {
+                flagChanges.put(key, fresh);
+            } else {
+                report.unchanged.add(key);
+            }
+        });
+        List<String> removed = new ArrayList<>();
+        for (String key : loaded.keySet()) {
+            // Keep items whose definition or file failed to load this time.
+            if (!parsed.items.containsKey(key) && !parsed.errors.containsKey(key)
+                    && !parsed.errors.containsKey(sources.get(key))) {
+                removed.add(key);
+            }
+        }
+        report.diffNanos = System.nanoTime() - diffStart;
+
+        long applyStart = System.nanoTime();
+        Item.beginBatch();
+        try {
+            for (String key : removed) {
+                loaded.remove(key).unregister();
+                sources.remove(key);
+                report.removed.add(key);
+            }
+            flagChanges.forEach((key, fresh) -> {
+                copyFlags(fresh, loaded.get(key));
+                report.changed.add(key);
+            });
+            recipeChanges.forEach((key, fresh) -> {
+                CrucialItem current = loaded.get(key);
+                Definition previous = Definition.of(current);
+                Definition.of(fresh).applyTo(current);
+                try {
+                    current.reload();
+                    report.changed.add(key);
+                    report.reloadedRecipes.add(key);
+                } catch (CrucialException e) {
+                    report.errors.put(key, e.getMessage());
+                    restore(current, previous);
+                }
+            });
+            retyped.forEach((key, fresh) -> loaded.get(key).unregister());
+            added.putAll(retyped);
+            registerAll(added, report.errors);
+            added.forEach((key, item) -> {
+                if (retyped.containsKey(key)) {
+                    report.changed.add(key);
+                    report.reloadedRecipes.add(key);
+                } else {
+                    report.added.add(key);
+                }
+            });
+            loaded.putAll(added);
+            added.keySet().forEach(key -> sources.put(key, parsed.sources.get(key)));
+        } finally {
+            Item.endBatch();
+        }
+        report.applyNanos = System.nanoTime() - applyStart;
+
+        logErrors(report.errors);
+        Server.log("Reloaded custom items: " + report.added.size() + " added, " + report.changed.size()
+                + " changed, " + report.removed.size() + " removed, " + report.unchanged.size() + " unchanged");
+        return report;
+    }
+
+    private static boolean sameRecipe(CrucialItem current, CrucialItem fresh) {
+        return Objects.equals(current.getName(), fresh.getName())
+                && Objects.equals(current.lore, fresh.lore)
+                && Objects.equals(current.getMaterial(), fresh.getMaterial())
+                && Objects.equals(compiledRecipe(current), compiledRecipe(fresh));
+    }
+
+    /**
+     * Returns the recipe an item registers, or {@code null} if it has none that compiles.
+     */
+    private static CrucialRecipe compiledRecipe(CrucialItem item) {
+        try {
+            return item.getCompiledRecipe();
+        } catch (CrucialException e) {
+            return null;
+        }
+    }
+
+    private static boolean sameFlags(CrucialItem current, CrucialItem fresh) {
+        return current.isCraftable == fresh.isCraftable
+                && current.isUsable == fresh.isUsable
+                && current.isAllowedForCrafting == fresh.isAllowedForCrafting;
+    }
+
+    private static void copyFlags(CrucialItem from, CrucialItem to) {
+        to.isCraftable = from.isCraftable;
+        to.isUsable = from.isUsable;
+        to.isAllowedForCrafting = from.isAllowedForCrafting;
+    }
+
+    /**
+     * Puts back the definition of an item whose new recipe could not be registered and
+     * registers its previous recipe again.
+     */
+    private static void restore(CrucialItem item, Definition previous) {
+        previous.applyTo(item);
+        try {
+            item.reload();
+        } catch (CrucialException e) {
+            // The previous recipe was registered before, so this only fails if the server changed.
+            item.unregister();
+        }
+    }
+
+    /**
+     * The fields of an item that a recipe change replaces.
+     */
+    private record Definition(boolean craftable, boolean usable, boolean allowedForCrafting, String name,
+                              List<String> lore, String material, String[] recipe, CrucialRecipe compiledRecipe) {
+
+        private static Definition of(CrucialItem item) {
+            return new Definition(item.isCraftable, item.isUsable, item.isAllowedForCrafting, item.name,
+                    item.lore, item.material, item.recipe, item.compiledRecipe);
+        }
+
+        private void applyTo(CrucialItem item) {
+            item.isCraftable = craftable;
+            item.isUsable = usable;
+            item.isAllowedForCrafting = allowedForCrafting;
+            item.recipe = recipe;
+            item.compiledRecipe = compiledRecipe;
+            item.setName(name);
+            item.setLore(lore);
+            item.setMaterial(material);
+        }
+    }
+
+    /**
+     * One item entry of a file while it moves through the pipeline.
+     */
+    private static final class Entry {
+        private final String source;
+        private final String key;
+        private final CrucialItemDefinition definition;
+        private CrucialItem item;
+        private String error;
+
+        private Entry(String source, String key, CrucialItemDefinition definition) {
+            this.source = source;
+            this.key = key;
+            this.definition = definition;
+        }
+
+        private static Entry failed(String source, String key, String error) {
+            Entry entry = new Entry(source, key, null);
+            entry.error = error;
+            return entry;
+        }
+    }
+
+    /**
+     * The outcome of loading a set of item files.
+     */
+    public static class Result {
+        private final Map<String, CrucialItem> items = new LinkedHashMap<>();
+        private final Map<String, String> errors = new LinkedHashMap<>();
+        private final Map<String, String> sources = new LinkedHashMap<>();
+
+        private void accept(Entry entry) {
+            if (entry.key == null) {
+                errors.put(entry.source, entry.error);
+            } else if (sources.containsKey(entry.key)) {
+                errors.put(entry.source + ":" + entry.key, "duplicate key, already defined in " + sources.get(entry.key));
+            } else if (entry.error != null) {
+                sources.put(entry.key, entry.source);
+                errors.put(entry.key, entry.source + ": " + entry.error);
+            } else {
+                sources.put(entry.key, entry.source);
+                items.put(entry.key, entry.item);
+            }
+        }
+
+        /**
+         * Returns the registered items by their key, in file order.
+         *
+         * @return an unmodifiable map of item keys to registered items
+         */
+        public Map<String, CrucialItem> getItems() {
+            return Collections.unmodifiableMap(items);
+        }
+
+        /**
+         * Returns the entries that could not be loaded. Keys are item keys, or file names for
+         * files that could not be read.
+         *
+         * @return an unmodifiable map of failed keys to a description of the problem
+         */
+        public Map<String, String> getErrors() {
+            return Collections.unmodifiableMap(errors);
+        }
+
+        /**
+         * Checks whether every definition was loaded.
+         *
+         * @return {@code true} if there were no errors
+         */
+        public boolean isSuccessful() {
+            return errors.isEmpty();
+        }
+    }
+
+    /**
+     * What a {@link #reload(Collection)} changed, and how long each phase took.
+     */
+    public static class ReloadReport {
+        private final List<String> added = new ArrayList<>();
+        private final List<String> changed = new ArrayList<>();
+        private final List<String> reloadedRecipes = new ArrayList<>();
+        private final List<String> removed = new ArrayList<>();
+        private final List<String> unchanged = new ArrayList<>();
+        private final Map<String, String> errors = new LinkedHashMap<>();
+        private long parseNanos;
+        private long diffNanos;
+        private long applyNanos;
+
+        /**
+         * Returns the keys of newly registered items.
+         *
+         * @return the keys of newly registered items
+         */
+        public List<String> getAdded() {
+            return Collections.unmodifiableList(added);
+        }
+
+        /**
+         * Returns the keys of items that were updated or replaced.
+         *
+         * @return the keys of items that were updated or replaced
+         */
+        public List<String> getChanged() {
+            return Collections.unmodifiableList(changed);
+        }
+
+        /**
+         * Returns the keys of changed items whose recipe was replaced; a subset of {@link #getChanged()}.
+         *
+         * @return the keys of changed items whose recipe was replaced; a subset of {@link #getChanged()}
+         */
+        public List<String> getReloadedRecipes() {
+            return Collections.unmodifiableList(reloadedRecipes);
+        }
+
+        /**
+         * Returns the keys of items that were unregistered because they are no longer defined.
+         *
+         * @return the keys of items that were unregistered because they are no longer defined
+         */
+        public List<String> getRemoved() {
+            return Collections.unmodifiableList(removed);
+        }
+
+        /**
+         * Returns the keys of items that were left untouched.
+         *
+         * @return the keys of items that were left untouched
+         */
+        public List<String> getUnchanged() {
+            return Collections.unmodifiableList(unchanged);
+        }
+
+        /**
+         * Returns the keys or file names that could not be loaded, mapped to a description of the problem.
+         *
+         * @return the keys or file names that could not be loaded, mapped to a description of the problem
+         */
+        public Map<String, String> getErrors() {
+            return Collections.unmodifiableMap(errors);
+        }
+
+        /**
+         * Returns the time spent reading and resolving the files, in nanoseconds.
+         *
+         * @return the time spent reading and resolving the files, in nanoseconds
+         */
+        public long getParseNanos() {
+            return parseNanos;
+        }
+
+        /**
+         * Returns the time spent comparing the new definitions with the loaded items, in nanoseconds.
+         *
+         * @return the time spent comparing the new definitions with the loaded items, in nanoseconds
+         */
+        public long getDiffNanos() {
+            return diffNanos;
+        }
+
+        /**
+         * Returns the time spent applying the differences on the main thread, in nanoseconds.
+         *
+         * @return the time spent applying the differences on the main thread, in nanoseconds
+         */
+        public long getApplyNanos() {
+            return applyNanos;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import org.bukkit.Material;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Backing store for {@link CrucialItem#CRUCIAL_ITEMS}.
+ *
+ * <p>Registered items are indexed by their {@link UUID} so that
+ * {@link CrucialItem#getById(UUID)} and {@link CrucialItem#getByStack} are a single
+ * hash lookup regardless of how many items are registered. The public
+ * {@link CrucialItem#CRUCIAL_ITEMS} set is a live view of this index, so adding to,
+ * removing from or clearing it keeps the index in step.
+ *
+ * <p>The registry also counts registered items per {@link Material}. Stacks whose
+ * material no registered item uses are rejected by {@link #isCandidate(Material)}
+ * before any {@link org.bukkit.inventory.meta.ItemMeta} is read.
+ *
+ * <p>Secondary indexes group registered items by type (case-insensitive) and by
+ * material. {@link #byType(String)} and {@link #byMaterial(Material)} return live
+ * read-only views of those groups. Groups are only created when an item is registered
+ * and dropped when their last item is removed; queries never add to the indexes.
+ *
+ * <p>Concurrency: every index is a concurrent structure. Writes (add, remove, material
+ * updates, clear) are serialized on a single lock so the indexes change together;
+ * reads never take that lock, never block on writers and never throw
+ * {@link java.util.ConcurrentModificationException}. Iterating a view is weakly
+ * consistent: it reflects some state of the registry at or after the start of the
+ * iteration. Readers on other threads may briefly see an item in one index before
+ * another while a write is in progress.
+ */
+final class CrucialItemRegistry {
+    private static final Object LOCK = new Object();
+    private static final Map<UUID, CrucialItem> BY_ID = new ConcurrentHashMap<>();
+    private static final Map<UUID, Material> MATERIALS = new ConcurrentHashMap<>();
+    private static final AtomicIntegerArray MATERIAL_COUNTS = new AtomicIntegerArray(Material.values().length);
+    private static final Map<String, Set<CrucialItem>> BY_TYPE = new ConcurrentHashMap<>();
+    private static final Map<Material, Set<CrucialItem>> BY_MATERIAL = new ConcurrentHashMap<>();
+    private static volatile long version = 0;
+
+    private CrucialItemRegistry() {
+    }
+
+    /**
+     * Adds an item to the index.
+     *
+     * @param item the item to add
+     * @return {@code true} if no item with the same id was indexed before
+     */
+    static boolean add(CrucialItem item) {
+        synchronized (LOCK) {
+            if (BY_ID.containsKey(item.getId())) {
+                return false;
+            }
+            BY_ID.put(item.getId(), item);
+            indexMaterial(item);
+            if (item.getType() != null) {
+                BY_TYPE.computeIfAbsent(typeKey(item.getType()), k -> ConcurrentHashMap.newKeySet()).add(item);
+            }
+            version++;
+            return true;
+        }
+    }
+
+    /**
+     * Removes an item from the index. Only removes the entry if it maps to an item
+     * equal to the given one.
+     *
+     * @param item the item to remove
+     * @return {@code true} if the item was indexed
+     */
+    static boolean remove(CrucialItem item) {
+        synchronized (LOCK) {
+            if (BY_ID.remove(item.getId(), item)) {
+                unindex(item);
+                version++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static void unindex(CrucialItem item) {
+        unindexMaterial(item);
+        if (item.getType() != null) {
+            removeFromBucket(BY_TYPE, typeKey(item.getType()), item);
+        }
+    }
+
+    /**
+     * Re-reads the material of an indexed item after it has been changed.
+     *
+     * @param item the item whose material changed
+     */
+    static void updateMaterial(CrucialItem item) {
+        synchronized (LOCK) {
+            if (contains(item)) {
+                unindexMaterial(item);
+                indexMaterial(item);
+                version++;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a stack of the given material could be a registered CrucialItem.
+     *
+     * @param material the stack's material
+     * @return {@code false} if no registered item uses this material
+     */
+    static boolean isCandidate(Material material) {
+        return material != null && MATERIAL_COUNTS.get(material.ordinal()) > 0;
+    }
+
+    /**
+     * Returns a live read-only view of the registered items with the given type.
+     *
+     * @param type the type, compared case-insensitively
+     * @return the items of this type; empty if there are none
+     */
+    static Set<CrucialItem> byType(String type) {
+        return new BucketView<>(BY_TYPE, typeKey(type));
+    }
+
+    /**
+     * Returns a live read-only view of the registered items with the given material.
+     *
+     * @param material the material
+     * @return the items of this material; empty if there are none
+     */
+    static Set<CrucialItem> byMaterial(Material material) {
+        return new BucketView<>(BY_MATERIAL, material);
+    }
+
+    private static String typeKey(String type) {
+        return type.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Removes an item from a secondary index and drops its bucket once it is empty, so the
+     * indexes only hold keys of registered items. Must be called while holding the lock.
+     */
+    private static <K> void removeFromBucket(Map<K, Set<CrucialItem>> index, K key, CrucialItem item) {
+        Set<CrucialItem> bucket = index.get(key);
+        if (bucket != null && bucket.remove(item) && bucket.isEmpty()) {
+            index.remove(key, bucket);
+        }
+    }
+
+    private static void indexMaterial(CrucialItem item) {
+        Material material = item.getMaterial() != null ? Material.getMaterial(item.getMaterial()) : null;
+        if (material != null) {
+            MATERIALS.put(item.getId(), material);
+            MATERIAL_COUNTS.incrementAndGet(material.ordinal());
+            BY_MATERIAL.computeIfAbsent(material, k -> ConcurrentHashMap.newKeySet()).add(item);
+        }
+    }
+
+    private static void unindexMaterial(CrucialItem item) {
+        Material material = MATERIALS.remove(item.getId());
+        if (material != null) {
+            MATERIAL_COUNTS.decrementAndGet(material.ordinal());
+            removeFromBucket(BY_MATERIAL, material, item);
+        }
+    }
+
+    /**
+     * Returns a counter that changes on every write to the registry. Caches of resolved
+     * items compare it to detect that their entries may be stale.
+     *
+     * @return the current registry version
+     */
+    static long version() {
+        return version;
+    }
+
+    static boolean contains(CrucialItem item) {
+        return item.equals(BY_ID.get(item.getId()));
+    }
+
+    static boolean containsId(UUID id) {
+        return BY_ID.containsKey(id);
+    }
+
+    static CrucialItem get(UUID id) {
+        return BY_ID.get(id);
+    }
+
+    static int size() {
+        return BY_ID.size();
+    }
+
+    /**
+     * Returns the number of type and material groups in the secondary indexes. Meant for tests.
+     */
+    static int bucketCount() {
+        return BY_TYPE.size() + BY_MATERIAL.size();
+    }
+
+    static void clear() {
+        synchronized (LOCK) {
+            BY_ID.clear();
+            MATERIALS.clear();
+            for (int i = 0; i < MATERIAL_COUNTS.length(); i++) {
+                MATERIAL_COUNTS.set(i, 0);
+            }
+            BY_TYPE.clear();
+            BY_MATERIAL.clear();
+            version++;
+        }
+    }
+
+    /**
+     * Live read-only view of one bucket of a secondary index. The bucket is looked up on
+     * every access, so a view of a key nobody has registered yet adds nothing to the index
+     * and still sees items registered later.
+     */
+    private static final class BucketView<K> extends AbstractSet<CrucialItem> {
+        private final Map<K, Set<CrucialItem>> index;
+        private final K key;
+
+        BucketView(Map<K, Set<CrucialItem>> index, K key) {
+            this.index = index;
+            this.key = key;
+        }
+
+        private Set<CrucialItem> bucket() {
+            return index.getOrDefault(key, Collections.emptySet());
+        }
+
+        @Override
+        public Iterator<CrucialItem> iterator() {
+            return Collections.unmodifiableSet(bucket()).iterator();
+        }
+
+        @Override
+        public int size() {
+            return bucket().size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return bucket().contains(o);
+        }
+    }
+
+    /**
+     * Live {@link java.util.Set} view over the index, used as {@link CrucialItem#CRUCIAL_ITEMS}.
+     */
+    static final class View extends AbstractSet<CrucialItem> {
+        @Override
+        public Iterator<CrucialItem> iterator() {
+            Iterator<CrucialItem> iterator = BY_ID.values().iterator();
+            return new Iterator<>() {
+                private CrucialItem current;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public CrucialItem next() {
+                    current = iterator.next();
+                    return current;
+                }
+
+                @Override
+                public void remove() {
+                    if (current == null) {
+                        throw new IllegalStateException();
+                    }
+                    CrucialItemRegistry.remove(current);
+                    current = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return CrucialItemRegistry.size();
+        }
+
+        @Override
+        public boolean add(CrucialItem item) {
+            return CrucialItemRegistry.add(item);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof CrucialItem && CrucialItemRegistry.remove((CrucialItem) o);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof CrucialItem && CrucialItemRegistry.contains((CrucialItem) o);
+        }
+
+        @Override
+        public void clear() {
+            CrucialItemRegistry.clear();
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import io.github.chafficui.CrucialLib.exceptions.CrucialException;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.BlastingRecipe;
+import org.bukkit.inventory.CampfireRecipe;
+import org.bukkit.inventory.FurnaceRecipe;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.Recipe;
+import org.bukkit.inventory.RecipeChoice;
+import org.bukkit.inventory.ShapedRecipe;
+import org.bukkit.inventory.ShapelessRecipe;
+import org.bukkit.inventory.SmithingTransformRecipe;
+import org.bukkit.inventory.SmokingRecipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compiled recipe: a shaped 3x3 grid, a shapeless ingredient list, a cooking input
+ * (furnace, blast furnace, smoker or campfire) or a smithing transformation.
+ *
+ * <p>The factory methods resolve the material names once and validate them. Compiled
+ * recipes are cached by their contents, so recompiling a recipe on reload, or compiling
+ * the same recipe for several items, returns the same instance without resolving any
+ * material again. A compiled recipe is immutable and can be turned into a Bukkit
+ * {@link Recipe} for any key and result, so every recipe needs exactly one server
+ * registration; use {@link #shapeless} rather than registering every arrangement of
+ * the ingredients as its own shaped recipe.
+ *
+ * <p>Shaped grids are in row-major order (indices 0-2 = top row, 3-5 = middle row,
+ * 6-8 = bottom row). Slots containing {@link Material#AIR} are left empty.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * CrucialRecipe sword = CrucialRecipe.shaped(
+ *     "AIR", "DIAMOND", "AIR",
+ *     "AIR", "DIAMOND", "AIR",
+ *     "AIR", "STICK",   "AIR");
+ * CrucialRecipe dust = CrucialRecipe.shapeless("REDSTONE", "GLOWSTONE_DUST");
+ * CrucialRecipe ingot = CrucialRecipe.furnace("RAW_GOLD", 0.7f, 200);
+ * CrucialRecipe upgrade = CrucialRecipe.smithing("NETHERITE_UPGRADE_SMITHING_TEMPLATE", "DIAMOND_SWORD", "NETHERITE_INGOT");
+ * }</pre>
+ *
+ * @see Item
+ * @see CrucialItem#setRecipe(CrucialRecipe)
+ */
+public final class CrucialRecipe {
+    private static final String[] SHAPE = {"123", "456", "789"};
+    private static final Map<List<String>, CrucialRecipe> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * The kinds of recipes a {@link CrucialRecipe} can be compiled to.
+     */
+    public enum Type {
+        /** A 3x3 crafting grid. */
+        SHAPED,
+        /** A set of crafting ingredients in any arrangement. */
+        SHAPELESS,
+        /** A furnace recipe. */
+        FURNACE,
+        /** A blast furnace recipe. */
+        BLASTING,
+        /** A smoker recipe. */
+        SMOKING,
+        /** A campfire recipe. */
+        CAMPFIRE,
+        /** A smithing table transformation of a template, a base and an addition. */
+        SMITHING
+    }
+
+    private final Type type;
+    private final Material[] ingredients;
+    private final String[] grid;
+    private final float experience;
+    private final int cookingTime;
+
+    private CrucialRecipe(Type type, Material[] ingredients, float experience, int cookingTime) {
+        this.type = type;
+        this.ingredients = ingredients;
+        this.experience = experience;
+        this.cookingTime = cookingTime;
+        this.grid = new String[ingredients.length];
+        for (int i = 0; i < ingredients.length; i++) {
+            grid[i] = ingredients[i].name();
+        }
+    }
+
+    /**
+     * Compiles a shaped 3x3 grid, or returns the cached compilation of an identical grid.
+     *
+     * @param grid 9 material names (e.g. {@code "AIR"}, {@code "DIAMOND"}) in row-major order
+     * @return the compiled recipe
+     * @throws CrucialException if the grid does not have 9 entries or names an unknown material (error 002)
+     */
+    public static CrucialRecipe shaped(String... grid) throws CrucialException {
+        if (grid == null || grid.length != 9) {
+            throw new CrucialException(2);
+        }
+        return compile(Type.SHAPED, grid, true, 0, 0);
+    }
+
+    /**
+     * Compiles a shapeless crafting recipe. The ingredients may be placed in the crafting
+     * grid in any arrangement; a material listed twice is needed twice.
+     *
+     * @param ingredients 1 to 9 material names; {@code "AIR"} is not allowed
+     * @return the compiled recipe
+     * @throws CrucialException if there are no or more than 9 ingredients, or an ingredient
+     *                          is unknown or air (error 002)
+     */
+    public static CrucialRecipe shapeless(String... ingredients) throws CrucialException {
+        if (ingredients == null || ingredients.length == 0 || ingredients.length > 9) {
+            throw new CrucialException(2);
+        }
+        // The arrangement does not matter, so equal multisets share one compilation.
+        String[] sorted = ingredients.clone();
+        try {
+            Arrays.sort(sorted);
+        } catch (NullPointerException e) {
+            throw new CrucialException(2);
+        }
+        return compile(Type.SHAPELESS, sorted, false, 0, 0);
+    }
+
+    /**
+     * Compiles a furnace recipe.
+     *
+     * @param input       the material name of the smelted item
+     * @param experience  the experience dropped when the result is taken out
+     * @param cookingTime the cooking time in ticks
+     * @return the compiled recipe
+     * @throws CrucialException if the input is unknown or air, or the experience or cooking
+     *                          time is out of range (error 002)
+     */
+    public static CrucialRecipe furnace(String input, float experience, int cookingTime) throws CrucialException {
+        return cooking(Type.FURNACE, input, experience, cookingTime);
+    }
+
+    /**
+     * Compiles a blast furnace recipe.
+     *
+     * @param input       the material name of the smelted item
+     * @param experience  the experience dropped when the result is taken out
+     * @param cookingTime the cooking time in ticks
+     * @return the compiled recipe
+     * @throws CrucialException if the input is unknown or air, or the experience or cooking
+     *                          time is out of range (error 002)
+     */
+    public static CrucialRecipe blasting(String input, float experience, int cookingTime) throws CrucialException {
+        return cooking(Type.BLASTING, input, experience, cookingTime);
+    }
+
+    /**
+     * Compiles a smoker recipe.
+     *
+     * @param input       the material name of the smoked item
+     * @param experience  the experience dropped when the result is taken out
+     * @param cookingTime the cooking time in ticks
+     * @return the compiled recipe
+     * @throws CrucialException if the input is unknown or air, or the experience or cooking
+     *                          time is out of range (error 002)
+     */
+    public static CrucialRecipe smoking(String input, float experience, int cookingTime) throws CrucialException {
+        return cooking(Type.SMOKING, input, experience, cookingTime);
+    }
+
+    /**
+     * Compiles a campfire recipe.
+     *
+     * @param input       the material name of the cooked item
+     * @param experience  the experience dropped when the result is taken out
+     * @param cookingTime the cooking time in ticks
+     * @return the compiled recipe
+     * @throws CrucialException if the input is unknown or air, or the experience or cooking
+     *                          time is out of range (error 002)
+     */
+    public static CrucialRecipe campfire(String input, float experience, int cookingTime) throws CrucialException {
+        return cooking(Type.CAMPFIRE, input, experience, cookingTime);
+    }
+
+    private static CrucialRecipe cooking(Type type, String input, float experience, int cookingTime) throws CrucialException {
+        if (!(experience >= 0) || cookingTime <= 0) {
+            throw new CrucialException(2);
+        }
+        return compile(type, new String[]{input}, false, experience, cookingTime);
+    }
+
+    /**
+     * Compiles a smithing table recipe that transforms the base into the result, keeping
+     * the base's enchantments and other data.
+     *
+     * @param template the material name of the smithing template
+     * @param base     the material name of the upgraded item
+     * @param addition the material name of the upgrade material
+     * @return the compiled recipe
+     * @throws CrucialException if an ingredient is unknown or air (error 002)
+     */
+    public static CrucialRecipe smithing(String template, String base, String addition) throws CrucialException {
+        return compile(Type.SMITHING, new String[]{template, base, addition}, false, 0, 0);
+    }
+
+    private static CrucialRecipe compile(Type type, String[] names, boolean allowAir,
+                                         float experience, int cookingTime) throws CrucialException {
+        List<String> cacheKey = new ArrayList<>(names.length + 3);
+        cacheKey.add(type.name());
+        cacheKey.add(Float.toString(experience));
+        cacheKey.add(Integer.toString(cookingTime));
+        cacheKey.addAll(Arrays.asList(names));
+        CrucialRecipe cached = CACHE.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        Material[] ingredients = new Material[names.length];
+        for (int i = 0; i < names.length; i++) {
+            Material material = names[i] == null ? null : Material.getMaterial(names[i]);
+            if (material == null || (!allowAir && material.isAir())) {
+                throw new CrucialException(2);
+            }
+            ingredients[i] = material;
+        }
+        return CACHE.computeIfAbsent(List.copyOf(cacheKey),
+                key -> new CrucialRecipe(type, ingredients, experience, cookingTime));
+    }
+
+    /**
+     * Returns the kind of this recipe.
+     *
+     * @return the recipe type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns one ingredient of this recipe. For shaped recipes the index is the grid slot,
+     * for smithing recipes {@code 0} is the template, {@code 1} the base and {@code 2} the
+     * addition, and cooking recipes have their input at {@code 0}.
+     *
+     * @param index the ingredient index, below {@link #getIngredientCount()}
+     * @return the ingredient; {@link Material#AIR} for an empty slot of a shaped grid
+     */
+    public Material getIngredient(int index) {
+        return ingredients[index];
+    }
+
+    /**
+     * Returns the number of ingredients; always 9 for shaped recipes.
+     *
+     * @return the ingredient count
+     */
+    public int getIngredientCount() {
+        return ingredients.length;
+    }
+
+    /**
+     * Returns the ingredients as material names. For shaped recipes this is the grid in the
+     * format accepted by {@link #shaped(String...)}.
+     *
+     * @return a new array of material names
+     */
+    public String[] toGrid() {
+        return grid.clone();
+    }
+
+    /**
+     * Returns the experience dropped by a cooking recipe.
+     *
+     * @return the experience, or {@code 0} for other recipe types
+     */
+    public float getExperience() {
+        return experience;
+    }
+
+    /**
+     * Returns the cooking time of a cooking recipe.
+     *
+     * @return the cooking time in ticks, or {@code 0} for other recipe types
+     */
+    public int getCookingTime() {
+        return cookingTime;
+    }
+
+    /**
+     * Creates a Bukkit recipe from this compiled recipe.
+     *
+     * @param key    the key of the recipe
+     * @param result the stack the recipe produces
+     * @return a new recipe of the Bukkit class matching {@link #getType()}
+     */
+    public Recipe toRecipe(NamespacedKey key, ItemStack result) {
+        return switch (type) {
+            case SHAPED -> {
+                ShapedRecipe recipe = new ShapedRecipe(key, result);
+                recipe.shape(SHAPE);
+                for (int i = 0; i < ingredients.length; i++) {
+                    if (ingredients[i] != Material.AIR) {
+                        recipe.setIngredient((char) ('1' + i), ingredients[i]);
+                    }
+                }
+                yield recipe;
+            }
+            case SHAPELESS -> {
+                ShapelessRecipe recipe = new ShapelessRecipe(key, result);
+                for (Material ingredient : ingredients) {
+                    recipe.addIngredient(ingredient);
+                }
+                yield recipe;
+            }
+            case FURNACE -> new FurnaceRecipe(key, result, ingredients[0], experience, cookingTime);
+            case BLASTING -> new BlastingRecipe(key, result, ingredients[0], experience, cookingTime);
+            case SMOKING -> new SmokingRecipe(key, result, ingredients[0], experience, cookingTime);
+            case CAMPFIRE -> new CampfireRecipe(key, result, ingredients[0], experience, cookingTime);
+            case SMITHING -> new SmithingTransformRecipe(key, result,
+                    new RecipeChoice.MaterialChoice(ingredients[0]),
+                    new RecipeChoice.MaterialChoice(ingredients[1]),
+                    new RecipeChoice.MaterialChoice(ingredients[2]));
+        };
+    }
+
+    /**
+     * Returns the number of distinct recipes compiled so far.
+     *
+     * @return the size of the compiled recipe cache
+     */
+    static int cacheSize() {
+        return CACHE.size();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || obj instanceof CrucialRecipe other && type == other.type
+                && Float.compare(experience, other.experience) == 0 && cookingTime == other.cookingTime
+                && Arrays.equals(ingredients, other.ingredients);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * type.hashCode() + Arrays.hashCode(ingredients)) + cookingTime;
+    }
+}
@@ -0,0 +1,284 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import com.google.gson.JsonParser;
+import io.github.chafficui.CrucialLib.Utils.CrucialKeys;
+import io.github.chafficui.CrucialLib.Utils.Server;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.profile.PlayerProfile;
+import org.bukkit.profile.PlayerTextures;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Resolves the skins of {@link CrucialHead} owners without blocking the main thread.
+ *
+ * <p>Looking up a player's skin may need a request to the session servers. This class
+ * does that asynchronously through {@link PlayerProfile#update()} and remembers the skin
+ * URL of every owner it resolved. The URLs are saved to {@code heads.yml} in CrucialLib's
+ * data folder, so after a restart heads get their skin immediately, without any lookup.
+ * Skins older than a week are still used but refreshed in the background.
+ *
+ * <p>Until an owner is resolved, {@link CrucialHead} hands out a plain player head as a
+ * placeholder and replaces it once the skin is known.
+ *
+ * <p>Heads defined by a texture instead of an owner need no lookup at all:
+ * {@link #getTextureProfile(String)} builds their profile once and shares it.
+ */
+public class HeadTextureCache {
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(7);
+
+    private static final Map<UUID, Entry> ENTRIES = new ConcurrentHashMap<>();
+    private static final Map<UUID, CompletableFuture<PlayerProfile>> PENDING = new ConcurrentHashMap<>();
+    private static final Map<String, PlayerProfile> TEXTURE_PROFILES = new ConcurrentHashMap<>();
+    private static final String TEXTURE_URL = "http://textures.minecraft.net/texture/";
+    private static final Function<UUID, CompletableFuture<PlayerProfile>> DEFAULT_RESOLVER =
+            owner -> Bukkit.createPlayerProfile(owner).update();
+    private static Function<UUID, CompletableFuture<PlayerProfile>> resolver = DEFAULT_RESOLVER;
+    private static volatile boolean dirty = false;
+
+    /**
+     * A resolved owner: the skin URL (or {@code null} if the owner has no custom skin),
+     * the time it was resolved and the profile built from it.
+     */
+    private record Entry(String skin, long resolvedAt, PlayerProfile profile) {
+        boolean isStale() {
+            return System.currentTimeMillis() - resolvedAt > MAX_AGE;
+        }
+    }
+
+    /**
+     * Returns the profile with the skin of an owner, if it is known. If it is not, or if it is
+     * stale, a lookup is started in the background.
+     *
+     * @param owner the UUID of the head owner
+     * @return a profile with the owner's skin, or {@code null} if the owner is not resolved yet
+     */
+    public static PlayerProfile getProfile(UUID owner) {
+        Entry entry = ENTRIES.get(owner);
+        if (entry == null || entry.isStale()) {
+            resolve(owner);
+        }
+        return entry == null ? null : entry.profile();
+    }
+
+    /**
+     * Checks whether the skin of an owner is known.
+     *
+     * @param owner the UUID of the head owner
+     * @return {@code true} if {@link #getProfile(UUID)} returns a profile for the owner
+     */
+    public static boolean isResolved(UUID owner) {
+        return ENTRIES.containsKey(owner);
+    }
+
+    /**
+     * Looks up the skin of an owner in the background, unless it is already known and not
+     * stale. Concurrent calls for the same owner share one lookup.
+     *
+     * @param owner the UUID of the head owner
+     * @return a future completed on the main thread with the owner's profile once it is
+     * resolved, or with {@code null} if the lookup failed; already complete if the skin is known
+     */
+    public static CompletableFuture<PlayerProfile> resolve(UUID owner) {
+        Entry entry = ENTRIES.get(owner);
+        if (entry != null && !entry.isStale()) {
+            return CompletableFuture.completedFuture(entry.profile());
+        }
+        CompletableFuture<PlayerProfile> result = new CompletableFuture<>();
+        CompletableFuture<PlayerProfile> pending = PENDING.putIfAbsent(owner, result);
+        if (pending != null) {
+            return pending;
+        }
+        CompletableFuture<PlayerProfile> lookup;
+        try {
+            lookup = resolver.apply(owner);
+        } catch (RuntimeException e) {
+            lookup = CompletableFuture.failedFuture(e);
+        }
+        lookup.whenComplete((resolved, error) -> {
+            PlayerProfile profile = null;
+            if (error == null && resolved != null) {
+                URL skin = resolved.getTextures().getSkin();
+                profile = store(owner, skin == null ? null : skin.toString(), System.currentTimeMillis());
+            } else {
+                Server.error("Could not resolve the skin of head owner " + owner + ": "
+                        + (error == null ? "no profile" : error.getMessage()));
+            }
+            PlayerProfile finalProfile = profile;
+            runOnMainThread(() -> {
+                PENDING.remove(owner);
+                result.complete(finalProfile);
+            });
+        });
+        return result;
+    }
+
+    private static void runOnMainThread(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(CrucialKeys.getPlugin(), task);
+        }
+    }
+
+    private static PlayerProfile store(UUID owner, String skin, long resolvedAt) {
+        PlayerProfile profile = Bukkit.createPlayerProfile(owner);
+        if (skin != null) {
+            try {
+                PlayerTextures textures = profile.getTextures();
+                textures.setSkin(URI.create(skin).toURL());
+                profile.setTextures(textures);
+            } catch (MalformedURLException | IllegalArgumentException e) {
+                Server.error("Ignoring invalid skin URL of head owner " + owner + ": " + skin);
+                skin = null;
+            }
+        }
+        ENTRIES.put(owner, new Entry(skin, resolvedAt, profile));
+        dirty = true;
+        return profile;
+    }
+
+    /**
+     * Returns the shared profile for a head texture. The profile is built on the first call for
+     * a texture and reused afterwards; nothing is looked up.
+     *
+     * @param texture a skin URL, a texture hash (the last part of a
+     *                {@code textures.minecraft.net} URL) or a base64 {@code textures} property value
+     * @return the profile, or {@code null} if the texture cannot be parsed
+     */
+    public static PlayerProfile getTextureProfile(String texture) {
+        if (texture == null) {
+            return null;
+        }
+        PlayerProfile profile = TEXTURE_PROFILES.get(texture);
+        if (profile == null) {
+            URL skin = parseTexture(texture);
+            if (skin == null) {
+                return null;
+            }
+            // Stacks of the same texture must carry the same profile id to stack with each other.
+            UUID id = UUID.nameUUIDFromBytes(("cruciallib:texture:" + skin).getBytes(StandardCharsets.UTF_8));
+            profile = TEXTURE_PROFILES.computeIfAbsent(texture, key -> {
+                PlayerProfile created = Bukkit.createPlayerProfile(id);
+                PlayerTextures textures = created.getTextures();
+                textures.setSkin(skin);
+                created.setTextures(textures);
+                return created;
+            });
+        }
+        return profile;
+    }
+
+    /**
+     * Turns a texture value into its skin URL.
+     *
+     * @return the skin URL, or {@code null} if the texture cannot be parsed
+     */
+    static URL parseTexture(String texture) {
+        String value = texture.trim();
+        try {
+            if (value.startsWith("http://") || value.startsWith("https://")) {
+                return URI.create(value).toURL();
+            }
+            if (value.matches("[0-9a-fA-F]{32,}")) {
+                return URI.create(TEXTURE_URL + value.toLowerCase()).toURL();
+            }
+            String json = new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8);
+            String url = JsonParser.parseString(json).getAsJsonObject()
+                    .getAsJsonObject("textures").getAsJsonObject("SKIN").get("url").getAsString();
+            return URI.create(url).toURL();
+        } catch (RuntimeException | MalformedURLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the function that looks up profiles. Meant for tests.
+     *
+     * @param resolver returns a future completed with the looked-up profile; {@code null}
+     *                 restores the default lookup
+     */
+    static void setResolver(Function<UUID, CompletableFuture<PlayerProfile>> resolver) {
+        HeadTextureCache.resolver = resolver != null ? resolver : DEFAULT_RESOLVER;
+    }
+
+    /**
+     * Loads resolved skins from a file. Called by CrucialLib on enable.
+     *
+     * @param file the cache file; nothing is loaded if it does not exist
+     */
+    public static void load(File file) {
+        if (!file.exists()) {
+            return;
+        }
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.load(file);
+        } catch (IOException | InvalidConfigurationException e) {
+            Server.error("Could not read " + file.getName() + ": " + e.getMessage());
+            return;
+        }
+        for (String key : config.getKeys(false)) {
+            ConfigurationSection section = config.getConfigurationSection(key);
+            UUID owner;
+            try {
+                owner = UUID.fromString(key);
+            } catch (IllegalArgumentException e) {
+                owner = null;
+            }
+            if (owner == null || section == null) {
+                Server.error("Ignoring invalid head entry " + key + " in " + file.getName());
+                continue;
+            }
+            store(owner, section.getString("skin"), section.getLong("resolved"));
+        }
+        dirty = false;
+    }
+
+    /**
+     * Saves resolved skins to a file if any were resolved since it was loaded or last saved.
+     * Called by CrucialLib on disable.
+     *
+     * @param file the cache file
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(File file) throws IOException {
+        if (!dirty) {
+            return;
+        }
+        YamlConfiguration config = new YamlConfiguration();
+        ENTRIES.forEach((owner, entry) -> {
+            config.set(owner + ".skin", entry.skin());
+            config.set(owner + ".resolved", entry.resolvedAt());
+        });
+        file.getParentFile().mkdirs();
+        config.save(file);
+        dirty = false;
+    }
+
+    /**
+     * Forgets all resolved skins, pending lookups, texture profiles and pending head reloads.
+     */
+    public static void clear() {
+        ENTRIES.clear();
+        PENDING.clear();
+        TEXTURE_PROFILES.clear();
+        CrucialHead.clearResolvedHeads();
+        dirty = false;
+    }
+}
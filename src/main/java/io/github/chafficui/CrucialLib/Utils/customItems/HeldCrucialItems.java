@@ -0,0 +1,140 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-player cache of the {@link CrucialItem}s held in the main hand and off hand.
+ *
+ * <p>Resolving a held stack with {@link CrucialItem#getByStack} reads its item meta.
+ * A single right-click can fire several interaction events, so CrucialLib keeps the
+ * resolved item per player and hand and only resolves again after something may have
+ * changed what the player holds. CrucialLib invalidates a player's entry on held-slot
+ * changes, hand swaps, inventory clicks and drags, drops, pickups, item breaks,
+ * consumption and quit. A cached entry is also dropped whenever the held material no
+ * longer matches the one it was resolved from, or when items are registered or unregistered.
+ *
+ * <p>Plugins that change a player's hands directly (e.g. {@code setItemInMainHand})
+ * with a stack of the same material should call {@link #invalidate(Player)} afterwards.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * CrucialItem held = HeldCrucialItems.getMainHand(player);
+ * if (held != null && held.getType().equals("weapon")) {
+ *     // ...
+ * }
+ * }</pre>
+ *
+ * @see CrucialItem#getByStack(ItemStack)
+ */
+public class HeldCrucialItems {
+    private static final Map<UUID, Hands> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the registered CrucialItem the player holds in the given hand.
+     * Slots other than {@link EquipmentSlot#HAND} and {@link EquipmentSlot#OFF_HAND}
+     * are resolved without caching.
+     *
+     * @param player the player
+     * @param slot   the hand to check; {@code null} returns {@code null}
+     * @return the held CrucialItem, or {@code null} if the hand holds none
+     */
+    public static CrucialItem get(Player player, EquipmentSlot slot) {
+        if (player == null || slot == null) {
+            return null;
+        }
+        PlayerInventory inventory = player.getInventory();
+        if (slot != EquipmentSlot.HAND && slot != EquipmentSlot.OFF_HAND) {
+            return CrucialItem.getByStack(inventory.getItem(slot));
+        }
+        Hands hands = CACHE.computeIfAbsent(player.getUniqueId(), id -> new Hands());
+        Hand hand = slot == EquipmentSlot.HAND ? hands.mainHand : hands.offHand;
+        ItemStack stack = slot == EquipmentSlot.HAND ? inventory.getItemInMainHand() : inventory.getItemInOffHand();
+        return hand.resolve(stack);
+    }
+
+    /**
+     * Returns the registered CrucialItem the player holds in the main hand.
+     *
+     * @param player the player
+     * @return the held CrucialItem, or {@code null} if the main hand holds none
+     */
+    public static CrucialItem getMainHand(Player player) {
+        return get(player, EquipmentSlot.HAND);
+    }
+
+    /**
+     * Returns the registered CrucialItem the player holds in the off hand.
+     *
+     * @param player the player
+     * @return the held CrucialItem, or {@code null} if the off hand holds none
+     */
+    public static CrucialItem getOffHand(Player player) {
+        return get(player, EquipmentSlot.OFF_HAND);
+    }
+
+    /**
+     * Drops the cached items of a player, so the next query resolves the hands again.
+     *
+     * @param player the player
+     */
+    public static void invalidate(Player player) {
+        Hands hands = CACHE.get(player.getUniqueId());
+        if (hands != null) {
+            hands.mainHand.invalidate();
+            hands.offHand.invalidate();
+        }
+    }
+
+    /**
+     * Removes a player from the cache entirely, e.g. when they leave the server.
+     *
+     * @param player the player
+     */
+    public static void remove(Player player) {
+        CACHE.remove(player.getUniqueId());
+    }
+
+    /**
+     * Clears the cache for all players.
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    private static final class Hands {
+        private final Hand mainHand = new Hand();
+        private final Hand offHand = new Hand();
+    }
+
+    private static final class Hand {
+        private volatile Material material;
+        private volatile CrucialItem item;
+        private volatile long version;
+
+        CrucialItem resolve(ItemStack stack) {
+            Material current = stack == null ? Material.AIR : stack.getType();
+            long registryVersion = CrucialItemRegistry.version();
+            if (material == current && version == registryVersion) {
+                return item;
+            }
+            CrucialItem resolved = CrucialItem.getByStack(stack);
+            item = resolved;
+            version = registryVersion;
+            material = current;
+            return resolved;
+        }
+
+        void invalidate() {
+            material = null;
+            item = null;
+        }
+    }
+}
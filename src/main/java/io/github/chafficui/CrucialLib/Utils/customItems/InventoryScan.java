@@ -0,0 +1,247 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+
+/**
+ * The registered {@link CrucialItem}s found in an {@link Inventory}, as a compact
+ * slot-to-item mapping.
+ *
+ * <p>{@link #scan(Inventory)} reads the inventory contents once and identifies every
+ * stack with {@link CrucialItem#getByStack}, so stacks whose material no registered
+ * item uses are skipped without reading their item meta. For a
+ * {@link org.bukkit.inventory.PlayerInventory} the scan covers storage, armour and
+ * off-hand slots; slot numbers are the ones accepted by {@link Inventory#getItem(int)}.
+ *
+ * <p>A scan can be passed back to {@link #scan(Inventory, InventoryScan)} to reuse its
+ * buffers, so scanning the same inventories repeatedly does not allocate once the
+ * buffers are large enough. A scan is a snapshot and is not updated when the inventory
+ * changes.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * InventoryScan scan = InventoryScan.scan(player.getInventory());
+ * for (int i = 0; i < scan.size(); i++) {
+ *     player.sendMessage(scan.getSlot(i) + ": " + scan.getItem(i).getName());
+ * }
+ *
+ * int swords = InventoryScan.count(player.getInventory(), sword);
+ * int removed = InventoryScan.remove(player.getInventory(), sword, 3);
+ * }</pre>
+ *
+ * @see CrucialItem#getByStack(ItemStack)
+ */
+public class InventoryScan {
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private int[] slots;
+    private int[] amounts;
+    private CrucialItem[] items;
+    private int size;
+
+    /**
+     * Creates an empty scan that can be filled with {@link #scan(Inventory, InventoryScan)}.
+     */
+    public InventoryScan() {
+        slots = new int[DEFAULT_CAPACITY];
+        amounts = new int[DEFAULT_CAPACITY];
+        items = new CrucialItem[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Scans an inventory for registered CrucialItems.
+     *
+     * @param inventory the inventory to scan
+     * @return a new scan of the inventory
+     */
+    public static InventoryScan scan(Inventory inventory) {
+        return scan(inventory, null);
+    }
+
+    /**
+     * Scans an inventory for registered CrucialItems, reusing the buffers of an earlier scan.
+     *
+     * @param inventory the inventory to scan
+     * @param reuse     a scan to overwrite, or {@code null} to create a new one
+     * @return {@code reuse} filled with the result, or a new scan if {@code reuse} was {@code null}
+     */
+    public static InventoryScan scan(Inventory inventory, InventoryScan reuse) {
+        InventoryScan result = reuse != null ? reuse : new InventoryScan();
+        result.reset();
+        ItemStack[] contents = inventory.getContents();
+        for (int slot = 0; slot < contents.length; slot++) {
+            CrucialItem item = CrucialItem.getByStack(contents[slot]);
+            if (item != null) {
+                result.add(slot, item, contents[slot].getAmount());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts the stacks of a CrucialItem in an inventory.
+     * Only stacks with the item's material are inspected.
+     *
+     * @param inventory the inventory to search
+     * @param item      the item to count
+     * @return the total amount of the item in the inventory
+     */
+    public static int count(Inventory inventory, CrucialItem item) {
+        Material material = materialOf(item);
+        if (material == null) {
+            return 0;
+        }
+        int total = 0;
+        for (ItemStack stack : inventory.getContents()) {
+            if (stack != null && stack.getType() == material && item.equals(CrucialItem.getByStack(stack))) {
+                total += stack.getAmount();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Removes up to {@code amount} of a CrucialItem from an inventory, starting at the
+     * lowest slot. Only stacks with the item's material are inspected.
+     *
+     * @param inventory the inventory to remove from
+     * @param item      the item to remove
+     * @param amount    the maximum amount to remove
+     * @return the amount actually removed
+     */
+    public static int remove(Inventory inventory, CrucialItem item, int amount) {
+        Material material = materialOf(item);
+        if (material == null || amount <= 0) {
+            return 0;
+        }
+        ItemStack[] contents = inventory.getContents();
+        int removed = 0;
+        for (int slot = 0; slot < contents.length && removed < amount; slot++) {
+            ItemStack stack = contents[slot];
+            if (stack == null || stack.getType() != material || !item.equals(CrucialItem.getByStack(stack))) {
+                continue;
+            }
+            int take = Math.min(stack.getAmount(), amount - removed);
+            if (take == stack.getAmount()) {
+                inventory.setItem(slot, null);
+            } else {
+                stack.setAmount(stack.getAmount() - take);
+                inventory.setItem(slot, stack);
+            }
+            removed += take;
+        }
+        return removed;
+    }
+
+    private static Material materialOf(CrucialItem item) {
+        if (item == null || item.getMaterial() == null) {
+            return null;
+        }
+        return Material.getMaterial(item.getMaterial());
+    }
+
+    /**
+     * Returns the number of CrucialItem stacks found.
+     *
+     * @return the number of entries in this scan
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the scan found no CrucialItems.
+     *
+     * @return {@code true} if the scanned inventory held no registered CrucialItem
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the inventory slot of an entry.
+     *
+     * @param index the entry index, from {@code 0} to {@link #size()} - 1
+     * @return the slot the entry was found in
+     */
+    public int getSlot(int index) {
+        checkIndex(index);
+        return slots[index];
+    }
+
+    /**
+     * Returns the CrucialItem of an entry.
+     *
+     * @param index the entry index, from {@code 0} to {@link #size()} - 1
+     * @return the CrucialItem found in the entry's slot
+     */
+    public CrucialItem getItem(int index) {
+        checkIndex(index);
+        return items[index];
+    }
+
+    /**
+     * Returns the stack amount of an entry at the time of the scan.
+     *
+     * @param index the entry index, from {@code 0} to {@link #size()} - 1
+     * @return the stack amount
+     */
+    public int getAmount(int index) {
+        checkIndex(index);
+        return amounts[index];
+    }
+
+    /**
+     * Returns the CrucialItem found in an inventory slot.
+     *
+     * @param slot the inventory slot
+     * @return the CrucialItem in that slot, or {@code null} if it held none
+     */
+    public CrucialItem getItemInSlot(int slot) {
+        int index = Arrays.binarySearch(slots, 0, size, slot);
+        return index >= 0 ? items[index] : null;
+    }
+
+    /**
+     * Returns the total amount of a CrucialItem found by this scan.
+     *
+     * @param item the item to count
+     * @return the summed stack amounts of the item
+     */
+    public int count(CrucialItem item) {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            if (items[i].equals(item)) {
+                total += amounts[i];
+            }
+        }
+        return total;
+    }
+
+    private void add(int slot, CrucialItem item, int amount) {
+        if (size == slots.length) {
+            int capacity = size * 2;
+            slots = Arrays.copyOf(slots, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            items = Arrays.copyOf(items, capacity);
+        }
+        slots[size] = slot;
+        amounts[size] = amount;
+        items[size] = item;
+        size++;
+    }
+
+    private void reset() {
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for scan of size " + size);
+        }
+    }
+}
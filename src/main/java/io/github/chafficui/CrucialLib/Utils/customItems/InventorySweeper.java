@@ -0,0 +1,309 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import io.github.chafficui.CrucialLib.Utils.CrucialKeys;
+import io.github.chafficui.CrucialLib.Utils.Server;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Sweeps the inventories of all online players for {@link CrucialItem}s, spread over
+ * several ticks.
+ *
+ * <p>Plugins register a {@link Handler} that is called for every registered CrucialItem
+ * found in a player's inventory (storage, armour and off hand), e.g. to enforce expiry or
+ * remove items that are no longer allowed. A sweep pass queues all online players and
+ * scans them one after another; each tick scans players until the per-tick time budget
+ * is spent, but always at least one. When the queue is empty, a new pass with the players
+ * online at that time starts once the pass interval has elapsed since the previous pass
+ * started.
+ *
+ * <p>The budget defaults to {@code settings.SWEEP_BUDGET_MICROS} and the interval to
+ * {@code settings.SWEEP_INTERVAL_TICKS} from CrucialLib's configuration. The sweep task
+ * runs under CrucialLib and starts when the first handler is added; it stops when the last
+ * handler is removed or CrucialLib disables.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * InventorySweeper.addHandler((player, slot, stack, item) -> {
+ *     if (item.getType().equals("ticket") && isExpired(stack)) {
+ *         player.getInventory().setItem(slot, null);
+ *     }
+ * });
+ * }</pre>
+ *
+ * @see InventoryScan
+ */
+public class InventorySweeper {
+    private static final List<Handler> HANDLERS = new CopyOnWriteArrayList<>();
+    private static final ArrayDeque<UUID> QUEUE = new ArrayDeque<>();
+    private static final InventoryScan SCAN = new InventoryScan();
+    private static long budgetNanos = 500_000;
+    private static int intervalTicks = 100;
+    private static BukkitRunnable task;
+    private static boolean sweeping;
+    private static boolean stopRequested;
+
+    private static long ticks;
+    private static long lastPassStart = -1;
+
+    private static int passSize;
+    private static long completedPasses;
+    private static long lastTickNanos;
+    private static int lastTickPlayers;
+    private static double averageTickNanos;
+
+    /**
+     * Called for each registered CrucialItem found during a sweep.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * Handles one CrucialItem stack. The stack is the one in the player's inventory,
+         * so changes to it apply directly; replacing or removing it is done through the
+         * inventory.
+         *
+         * @param player the player whose inventory is swept
+         * @param slot   the inventory slot of the stack
+         * @param stack  the stack in that slot
+         * @param item   the registered CrucialItem the stack belongs to
+         */
+        void handle(Player player, int slot, ItemStack stack, CrucialItem item);
+    }
+
+    /**
+     * Adds a handler and starts the sweep task if it is not running yet.
+     *
+     * @param handler the handler to call for each found CrucialItem
+     */
+    public static void addHandler(Handler handler) {
+        HANDLERS.add(handler);
+        start();
+    }
+
+    /**
+     * Removes a handler. The sweep task stops when no handlers are left.
+     *
+     * @param handler the handler to remove
+     */
+    public static void removeHandler(Handler handler) {
+        HANDLERS.remove(handler);
+        if (HANDLERS.isEmpty()) {
+            stop();
+        }
+    }
+
+    /**
+     * Sets the time a sweep may spend per tick.
+     *
+     * @param micros the per-tick budget in microseconds; at least one player is scanned per tick regardless
+     */
+    public static void setBudgetMicros(long micros) {
+        budgetNanos = Math.max(0, micros) * 1_000;
+    }
+
+    /**
+     * Returns the time a sweep may spend per tick.
+     *
+     * @return the per-tick budget in microseconds
+     */
+    public static long getBudgetMicros() {
+        return budgetNanos / 1_000;
+    }
+
+    /**
+     * Sets the minimum time between the starts of two sweep passes. A pass that takes longer
+     * than this is followed by the next one right away.
+     *
+     * @param ticks the pass interval in ticks; {@code 0} starts a new pass as soon as one finishes
+     */
+    public static void setIntervalTicks(int ticks) {
+        intervalTicks = Math.max(0, ticks);
+    }
+
+    /**
+     * Returns the minimum time between the starts of two sweep passes.
+     *
+     * @return the pass interval in ticks
+     */
+    public static int getIntervalTicks() {
+        return intervalTicks;
+    }
+
+    /**
+     * Starts the sweep task under CrucialLib if it is not running.
+     */
+    public static void start() {
+        if (task != null) {
+            return;
+        }
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        };
+        task.runTaskTimer(CrucialKeys.getPlugin(), 1, 1);
+    }
+
+    /**
+     * Stops the sweep task and discards the current pass. Handlers stay registered.
+     * If called by a handler during a sweep, the stop takes effect once the player being
+     * scanned is finished; that pass does not count as completed.
+     */
+    public static void stop() {
+        if (sweeping) {
+            stopRequested = true;
+            return;
+        }
+        if (task != null) {
+            if (!task.isCancelled()) {
+                task.cancel();
+            }
+            task = null;
+        }
+        QUEUE.clear();
+        passSize = 0;
+    }
+
+    /**
+     * Checks whether the sweep task is running.
+     *
+     * @return {@code true} if the sweep task is scheduled
+     */
+    public static boolean isRunning() {
+        return task != null;
+    }
+
+    /**
+     * Removes all handlers, stops the sweep task and resets the metrics.
+     */
+    public static void reset() {
+        HANDLERS.clear();
+        stop();
+        completedPasses = 0;
+        ticks = 0;
+        lastPassStart = -1;
+        lastTickNanos = 0;
+        lastTickPlayers = 0;
+        averageTickNanos = 0;
+    }
+
+    /**
+     * Runs one tick of the sweep. Called by the sweep task every tick.
+     */
+    static void tick() {
+        ticks++;
+        if (QUEUE.isEmpty()) {
+            if (lastPassStart >= 0 && ticks - lastPassStart < intervalTicks) {
+                return;
+            }
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                QUEUE.add(player.getUniqueId());
+            }
+            passSize = QUEUE.size();
+            lastPassStart = ticks;
+        }
+        long start = System.nanoTime();
+        int scanned = 0;
+        sweeping = true;
+        try {
+            while (!stopRequested && !QUEUE.isEmpty() && (scanned == 0 || System.nanoTime() - start < budgetNanos)) {
+                Player player = Bukkit.getPlayer(QUEUE.poll());
+                if (player != null) {
+                    sweep(player);
+                }
+                scanned++;
+                if (QUEUE.isEmpty() && !stopRequested) {
+                    completedPasses++;
+                }
+            }
+        } finally {
+            sweeping = false;
+        }
+        if (stopRequested) {
+            stopRequested = false;
+            stop();
+        }
+        lastTickNanos = System.nanoTime() - start;
+        lastTickPlayers = scanned;
+        averageTickNanos = averageTickNanos == 0 ? lastTickNanos : averageTickNanos * 0.95 + lastTickNanos * 0.05;
+    }
+
+    private static void sweep(Player player) {
+        PlayerInventory inventory = player.getInventory();
+        InventoryScan.scan(inventory, SCAN);
+        for (int i = 0; i < SCAN.size(); i++) {
+            int slot = SCAN.getSlot(i);
+            ItemStack stack = inventory.getItem(slot);
+            for (Handler handler : HANDLERS) {
+                try {
+                    handler.handle(player, slot, stack, SCAN.getItem(i));
+                } catch (RuntimeException e) {
+                    Server.error("Inventory sweep handler failed for " + player.getName() + ": " + e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of players still to be scanned in the current pass.
+     *
+     * @return the remaining players of the current pass
+     */
+    public static int getRemainingPlayers() {
+        return QUEUE.size();
+    }
+
+    /**
+     * Returns how far the current pass has progressed.
+     *
+     * @return a value from {@code 0.0} (just started) to {@code 1.0} (finished)
+     */
+    public static double getPassProgress() {
+        return passSize == 0 ? 1.0 : 1.0 - (double) QUEUE.size() / passSize;
+    }
+
+    /**
+     * Returns the number of finished sweep passes.
+     *
+     * @return the number of passes in which every queued player was scanned
+     */
+    public static long getCompletedPasses() {
+        return completedPasses;
+    }
+
+    /**
+     * Returns the time spent by the most recent tick that scanned players.
+     *
+     * @return the duration of the last tick in nanoseconds
+     */
+    public static long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    /**
+     * Returns the number of players scanned in the most recent tick that scanned players.
+     *
+     * @return the players scanned in the last tick
+     */
+    public static int getLastTickPlayers() {
+        return lastTickPlayers;
+    }
+
+    /**
+     * Returns a moving average of the time spent per tick, over the ticks that scanned players.
+     *
+     * @return the average tick duration in nanoseconds
+     */
+    public static long getAverageTickNanos() {
+        return (long) averageTickNanos;
+    }
+}
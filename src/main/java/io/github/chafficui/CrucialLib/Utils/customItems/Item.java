@@ -1,5 +1,6 @@
 package io.github.chafficui.CrucialLib.Utils.customItems;
 
+import io.github.chafficui.CrucialLib.Utils.CrucialKeys;
 import io.github.chafficui.CrucialLib.Utils.Server;
 import io.github.chafficui.CrucialLib.exceptions.CrucialException;
 import org.bukkit.Bukkit;
@@ -10,7 +11,6 @@ import org.bukkit.inventory.ShapedRecipe;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -24,20 +24,28 @@ import java.util.UUID;
  *
  * <p>The recipe array maps directly to a 3x3 crafting grid in row-major
  * order (indices 0-2 = top row, 3-5 = middle row, 6-8 = bottom row).
- * Slots containing {@code "AIR"} are treated as empty.
+ * Slots containing {@code "AIR"} are treated as empty. Arrays are compiled
+ * into a {@link CrucialRecipe} once per distinct grid and reused afterwards.
+ * Shapeless, cooking and smithing recipes are created from a
+ * {@link CrucialRecipe} with {@link #createItem(String, String, ItemStack, CrucialRecipe)}.
  *
  * @see CrucialItem
  * @see CrucialHead
  * @see Stack
  */
 public class Item {
+    private static int batchDepth = 0;
+    private static int batchedRecipes = 0;
+    private static boolean quiet = false;
+    private static int quietRecipes = 0;
+
     /**
      * Returns the CrucialLib plugin instance used for creating {@link NamespacedKey}s.
      *
      * @return the CrucialLib {@link JavaPlugin} instance
      */
     private static JavaPlugin getPlugin() {
-        return (JavaPlugin) Bukkit.getPluginManager().getPlugin("CrucialLib");
+        return CrucialKeys.getPlugin();
     }
 
     /**
@@ -110,40 +118,130 @@ public class Item {
     }
 
     /**
-     * Builds a {@link ShapedRecipe} from the given parameters and registers it
-     * with {@link Bukkit#addRecipe}. The recipe key and name are sanitized
-     * (spaces replaced, lowercased) before forming the {@link NamespacedKey}.
+     * Creates a crafting recipe from a compiled {@link CrucialRecipe} for a pre-built
+     * {@link ItemStack} and registers it with the server. Compiled recipes can be shared
+     * by several items and reused across reloads.
+     *
+     * @param key    a unique key suffix used (along with the name) to form the
+     *               {@link NamespacedKey} for the recipe
+     * @param name   the display name of the resulting item
+     * @param stack  the pre-built {@link ItemStack} produced by the recipe
+     * @param recipe the compiled recipe
+     * @return the {@link NamespacedKey} of the registered recipe
+     * @throws CrucialException if the recipe could not be created (error 002)
+     */
+    public static NamespacedKey createItem(String key, String name, ItemStack stack, CrucialRecipe recipe) throws CrucialException {
+        try{
+            return addRecipe(key, name, recipe, stack);
+        } catch(IllegalArgumentException e){
+            throw new CrucialException(2);
+        }
+    }
+
+    /**
+     * Enables or disables quiet mode. While quiet, recipes are added without a log line each;
+     * instead, one summary line with the number of recipes created is logged on the next tick.
      *
-     * <p>The recipe array is iterated with characters {@code '1'} through
-     * {@code '9'} mapped to grid positions. Slots whose material is
-     * {@link Material#AIR} are left empty.
+     * @param quiet {@code true} to replace per-recipe log lines with a summary
+     */
+    public static void setQuiet(boolean quiet) {
+        Item.quiet = quiet;
+    }
+
+    /**
+     * Checks whether quiet mode is enabled.
+     *
+     * @return {@code true} if per-recipe log lines are replaced with a summary
+     */
+    public static boolean isQuiet() {
+        return quiet;
+    }
+
+    private static NamespacedKey addRecipe(String key, String name, String[] recipe, ItemStack stack) throws CrucialException {
+        return addRecipe(key, name, CrucialRecipe.shaped(recipe), stack);
+    }
+
+    /**
+     * Builds a Bukkit recipe from the compiled recipe and registers it with
+     * {@link Bukkit#addRecipe}. The recipe key and name are sanitized
+     * (spaces replaced, lowercased) before forming the {@link NamespacedKey}.
      *
      * @param key    a unique key suffix for the recipe
      * @param name   the display name (also used as part of the namespaced key)
-     * @param recipe 9-element array of material names for the 3x3 grid
+     * @param recipe the compiled recipe
      * @param stack  the {@link ItemStack} produced by the recipe
      * @return the {@link NamespacedKey} of the registered recipe
      */
-    private static NamespacedKey addRecipe(String key, String name, String[] recipe, ItemStack stack){
-        name = name.replaceAll(" ", "_").toLowerCase();
-        key = key.replaceAll(" ", "_").replaceAll(":", ".").toLowerCase();
+    private static NamespacedKey addRecipe(String key, String name, CrucialRecipe recipe, ItemStack stack){
+        name = sanitize(name, false);
+        key = sanitize(key, true);
         NamespacedKey namespacedKey = new NamespacedKey(getPlugin(), name + key);
-        ShapedRecipe shapedRecipe = new ShapedRecipe(namespacedKey, stack);
-        int num = 48;
 
-        shapedRecipe.shape("123","456","789");
+        Bukkit.addRecipe(recipe.toRecipe(namespacedKey, stack));
+        if (batchDepth > 0) {
+            batchedRecipes++;
+        } else if (quiet) {
+            logQuietly();
+        } else {
+            Server.log("Successfully created " + name + " (key: " + name + key + ")");
+        }
+        return namespacedKey;
+    }
 
-        for (String item:recipe) {
-            num++;
-            Material mat = Objects.requireNonNull(Material.getMaterial(item));
-            if (mat != Material.AIR) {
-                char c = (char)num;
-                shapedRecipe.setIngredient(c, mat);
+    /**
+     * Lowercases a key part and replaces spaces with {@code '_'} (and, if requested,
+     * {@code ':'} with {@code '.'}).
+     */
+    static String sanitize(String part, boolean replaceColons) {
+        StringBuilder sanitized = new StringBuilder(part.length());
+        for (int i = 0; i < part.length(); i++) {
+            char c = part.charAt(i);
+            if (c == ' ') {
+                c = '_';
+            } else if (c == ':' && replaceColons) {
+                c = '.';
             }
+            sanitized.append(c);
         }
+        return sanitized.toString().toLowerCase();
+    }
 
-        Bukkit.addRecipe(shapedRecipe);
-        Server.log("Successfully created " + name + " (key: " + name + key + ")");
-        return namespacedKey;
+    private static void logQuietly() {
+        if (quietRecipes++ == 0) {
+            // A disabled plugin cannot schedule tasks, so the summary is logged right away.
+            if (getPlugin().isEnabled()) {
+                Bukkit.getScheduler().runTask(getPlugin(), Item::flushQuietLog);
+            } else {
+                flushQuietLog();
+            }
+        }
+    }
+
+    private static void flushQuietLog() {
+        if (quietRecipes > 0) {
+            Server.log("Successfully created " + quietRecipes + " recipes");
+            quietRecipes = 0;
+        }
+    }
+
+    /**
+     * Starts a recipe batch. Until the matching {@link #endBatch()}, recipes are added
+     * without a log line each.
+     */
+    static void beginBatch() {
+        batchDepth++;
+    }
+
+    /**
+     * Ends a recipe batch. When the outermost batch ends, clients receive one recipe
+     * update and a single summary line is logged.
+     */
+    static void endBatch() {
+        if (batchDepth > 0 && --batchDepth == 0 && batchedRecipes > 0) {
+            int count = batchedRecipes;
+            batchedRecipes = 0;
+            Bukkit.updateRecipes();
+            Server.log("Successfully created " + count + " recipes");
+        }
     }
 }
@@ -9,6 +9,7 @@ import org.bukkit.inventory.ItemFlag;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.SkullMeta;
+import org.bukkit.profile.PlayerProfile;
 
 import java.util.List;
 import java.util.UUID;
@@ -71,6 +72,11 @@ public class Stack {
     /**
      * Creates a player head {@link ItemStack} whose skin is determined by the given player UUID.
      *
+     * <p>If the player's profile is not cached by the server, this may look it up on the
+     * calling thread. {@link CrucialHead} uses
+     * {@link #getStackFromProfile(PlayerProfile, String, List)} with profiles from
+     * {@link HeadTextureCache} instead.
+     *
      * @param uuid the {@link UUID} of the player whose head skin should be used
      * @param name the display name to set on the head item
      * @param lore the lore lines to set on the head item
@@ -90,6 +96,26 @@ public class Stack {
         return stack;
     }
 
+    /**
+     * Creates a player head {@link ItemStack} skinned with the given profile. Nothing is
+     * looked up; the head shows whatever textures the profile carries.
+     *
+     * @param profile the profile whose skin should be used, or {@code null} for a plain head
+     * @param name    the display name to set on the head item
+     * @param lore    the lore lines to set on the head item
+     * @return a {@link Material#PLAYER_HEAD} {@link ItemStack} with the specified profile, display name, and lore
+     */
+    public static ItemStack getStackFromProfile(PlayerProfile profile, String name, List<String> lore){
+        ItemStack stack = new ItemStack(Material.PLAYER_HEAD);
+        SkullMeta meta = (SkullMeta) stack.getItemMeta();
+        assert meta != null;
+        meta.setDisplayName(name);
+        meta.setLore(lore);
+        if(profile != null)
+            meta.setOwnerProfile(profile);
+        return getCleanMeta(stack, meta);
+    }
+
     /**
      * Creates an {@link ItemStack} with a custom display name, lore, and an optional glow effect.
      *
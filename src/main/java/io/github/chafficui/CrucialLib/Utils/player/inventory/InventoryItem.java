@@ -1,13 +1,12 @@
 package io.github.chafficui.CrucialLib.Utils.player.inventory;
 
+import io.github.chafficui.CrucialLib.Utils.CrucialKeys;
 import io.github.chafficui.CrucialLib.Utils.customItems.Stack;
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
-import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.HashMap;
 import java.util.List;
@@ -15,30 +14,45 @@ import java.util.List;
 /**
  * Represents a clickable item in a custom GUI inventory ({@link Page}).
  * Each item occupies a slot, has an optional click action, and can be marked as movable or immovable.
- * Items are tagged with a {@link org.bukkit.persistence.PersistentDataContainer} marker for identification.
+ * Items are tagged with a {@link org.bukkit.persistence.PersistentDataContainer} marker for identification
+ * and with their slot, so a {@link Page} finds the item of a stack without a search.
  *
  * @see Page
  * @see InventoryClick
  * @see Action
  */
 public class InventoryItem {
-    private static JavaPlugin getPlugin() {
-        return (JavaPlugin) Bukkit.getPluginManager().getPlugin("CrucialLib");
-    }
-
     private static NamespacedKey getMarkerKey() {
-        return new NamespacedKey(getPlugin(), "inventoryitem");
+        return CrucialKeys.getInventoryItemKey();
     }
 
-    private static ItemStack applyMarker(ItemStack stack) {
+    private static ItemStack applyMarker(ItemStack stack, int slot) {
         ItemMeta meta = stack.getItemMeta();
         if (meta != null) {
             meta.getPersistentDataContainer().set(getMarkerKey(), PersistentDataType.BYTE, (byte) 1);
+            meta.getPersistentDataContainer().set(CrucialKeys.getInventoryItemSlotKey(), PersistentDataType.INTEGER, slot);
             stack.setItemMeta(meta);
         }
         return stack;
     }
 
+    /**
+     * Returns the slot an {@link ItemStack} was tagged with when it became an InventoryItem.
+     *
+     * @param stack the item stack to inspect (may be {@code null})
+     * @return the slot, or {@code -1} if the stack carries no slot tag
+     */
+    public static int getSlot(ItemStack stack) {
+        if (stack != null && stack.hasItemMeta()) {
+            Integer slot = stack.getItemMeta().getPersistentDataContainer()
+                    .get(CrucialKeys.getInventoryItemSlotKey(), PersistentDataType.INTEGER);
+            if (slot != null) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Checks whether the given {@link ItemStack} is tagged as an InventoryItem
      * by inspecting its {@link org.bukkit.persistence.PersistentDataContainer} for the marker key.
@@ -47,8 +61,9 @@ public class InventoryItem {
      * @return {@code true} if the stack carries the InventoryItem marker, {@code false} otherwise
      */
     public static boolean isInventoryItem(ItemStack stack) {
-        if (stack != null && stack.getItemMeta() != null) {
-            return stack.getItemMeta().getPersistentDataContainer().has(getMarkerKey(), PersistentDataType.BYTE);
+        if (stack != null && stack.hasItemMeta()) {
+            ItemMeta meta = stack.getItemMeta();
+            return meta != null && meta.getPersistentDataContainer().has(getMarkerKey(), PersistentDataType.BYTE);
         }
         return false;
     }
@@ -69,7 +84,7 @@ public class InventoryItem {
      * @param action   the action to execute when the item is clicked
      */
     public InventoryItem(int slot, Material material, String name, List<String> lore, Action action) {
-        this.stack = applyMarker(Stack.getStack(material, name, lore));
+        this.stack = applyMarker(Stack.getStack(material, name, lore), slot);
         this.action = action;
         this.slot = slot;
         this.isMovable = false;
@@ -87,7 +102,7 @@ public class InventoryItem {
      * @param isMovable whether the player can move this item in the inventory
      */
     public InventoryItem(int slot, Material material, String name, List<String> lore, Action action, boolean isMovable) {
-        this.stack = applyMarker(Stack.getStack(material, name, lore));
+        this.stack = applyMarker(Stack.getStack(material, name, lore), slot);
         this.action = action;
         this.slot = slot;
         this.isMovable = isMovable;
@@ -102,7 +117,7 @@ public class InventoryItem {
      */
     public InventoryItem(int slot, ItemStack stack, Action action) {
         this.slot = slot;
-        this.stack = applyMarker(stack);
+        this.stack = applyMarker(stack, slot);
         this.action = action;
         this.isMovable = false;
     }
@@ -118,7 +133,7 @@ public class InventoryItem {
      */
     public InventoryItem(int slot, ItemStack stack, Action action, boolean isMovable) {
         this.slot = slot;
-        this.stack = applyMarker(stack);
+        this.stack = applyMarker(stack, slot);
         this.action = action;
         this.isMovable = isMovable;
     }
@@ -131,7 +146,7 @@ public class InventoryItem {
      */
     public InventoryItem(int slot, ItemStack stack) {
         this.slot = slot;
-        this.stack = applyMarker(stack);
+        this.stack = applyMarker(stack, slot);
         this.action = click -> {};
         this.isMovable = false;
     }
@@ -146,7 +161,7 @@ public class InventoryItem {
      */
     public InventoryItem(int slot, ItemStack stack, boolean isMovable) {
         this.slot = slot;
-        this.stack = applyMarker(stack);
+        this.stack = applyMarker(stack, slot);
         this.action = click -> {};
         this.isMovable = isMovable;
     }
@@ -158,7 +173,7 @@ public class InventoryItem {
      */
     public InventoryItem(int slot) {
         this.slot = slot;
-        this.stack = applyMarker(new ItemStack(Material.WHITE_STAINED_GLASS_PANE));
+        this.stack = applyMarker(new ItemStack(Material.WHITE_STAINED_GLASS_PANE), slot);
         this.action = click -> {};
         this.isMovable = false;
     }
@@ -172,7 +187,7 @@ public class InventoryItem {
      */
     public InventoryItem(int slot, boolean isMovable) {
         this.slot = slot;
-        this.stack = applyMarker(new ItemStack(Material.WHITE_STAINED_GLASS_PANE));
+        this.stack = applyMarker(new ItemStack(Material.WHITE_STAINED_GLASS_PANE), slot);
         this.action = click -> {};
         this.isMovable = isMovable;
     }
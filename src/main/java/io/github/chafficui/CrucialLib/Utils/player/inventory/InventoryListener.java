@@ -1,13 +1,19 @@
 package io.github.chafficui.CrucialLib.Utils.player.inventory;
 
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.*;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.inventory.Inventory;
 
 /**
  * Internal Bukkit event listener that routes inventory click, pickup, and move events
- * to the appropriate {@link Page}. This listener is registered automatically by CrucialLib
- * during plugin initialization and should not be registered manually.
+ * to the appropriate {@link Page} and releases pages that are no longer in use. This
+ * listener is registered automatically by CrucialLib during plugin initialization and
+ * should not be registered manually.
  *
  * @see Page
  * @see InventoryItem
@@ -62,4 +68,43 @@ public class InventoryListener implements Listener {
             }
         }
     }
+
+    /**
+     * Releases a page when the last viewer of its inventory closes it.
+     *
+     * @param event the inventory close event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent event) {
+        releaseIfLastViewer(event.getInventory());
+    }
+
+    /**
+     * Releases the page a quitting player was the last viewer of.
+     *
+     * @param event the player quit event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        releaseIfLastViewer(player.getOpenInventory().getTopInventory());
+    }
+
+    /**
+     * Closes and releases the pages of a plugin that is disabled.
+     *
+     * @param event the plugin disable event
+     */
+    @EventHandler
+    public void onPluginDisable(PluginDisableEvent event) {
+        Page.releaseAll(event.getPlugin());
+    }
+
+    private void releaseIfLastViewer(Inventory inventory) {
+        Page page = Page.get(inventory);
+        // The closing player is still counted as a viewer; every viewer of a page shares its inventory.
+        if (page != null && inventory.getViewers().size() <= 1) {
+            page.release();
+        }
+    }
 }
@@ -7,16 +7,33 @@ import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Represents a custom GUI page (chest inventory) that can hold {@link InventoryItem}s.
  * Extend this class and override {@link #populate()} to define your GUI layout.
  * Pages are automatically tracked in a global registry and handle click events via
- * {@link InventoryListener}.
+ * {@link InventoryListener}. A page is the {@link InventoryHolder} of the inventory it opens,
+ * so the page of an inventory is found without searching the registry. Every viewer of a page
+ * shares its one inventory.
+ *
+ * <p>{@link #reloadInventory()} runs {@link #populate()} again and updates every slot that
+ * changed. To change a single button, use {@link #setItem(InventoryItem)},
+ * {@link #clearSlot(int)} or {@link #updateSlot(int)}, which touch only that slot.
+ *
+ * <p>A page is in the registry while it is in use: it is added when it is opened, and
+ * released when the last viewer of its inventory closes it or quits, when the plugin that
+ * owns it is disabled, or when {@link #release()} is called. Pages that are built but never
+ * opened are not kept. Opening a released page registers it again.
  *
  * <p>Example usage:</p>
  * <pre>{@code
@@ -37,24 +54,27 @@ import java.util.HashMap;
  * @see InventoryItem
  * @see InventoryListener
  */
-public class Page {
+public class Page implements InventoryHolder {
     /**
-     * Global registry of all created pages. Pages are added on construction
-     * and can be looked up by their underlying {@link Inventory} instance.
+     * Global registry of all live pages. Pages are added when they are {@linkplain #open(Player) opened}
+     * and removed when they are {@linkplain #release() released}.
      */
     public final static ArrayList<Page> pages = new ArrayList<>();
+    private static long createdPages = 0;
+    private static final Map<Material, ItemStack> FILL_STACKS = new EnumMap<>(Material.class);
+    private static long releasedPages = 0;
 
     /**
-     * Finds the {@link Page} associated with the given inventory.
+     * Finds the {@link Page} associated with the given inventory, i.e. the page holding it.
+     * Runs in constant time; inventories that are not pages are rejected without a search.
      *
      * @param inventory the Bukkit inventory to look up
      * @return the matching page, or {@code null} if no page is associated with the inventory
      */
     public static Page get(Inventory inventory) {
-        for (Page page : pages) {
-            if (page.inventory.equals(inventory)) {
-                return page;
-            }
+        // Without a snapshot, block inventories such as chests do not copy their block state.
+        if (inventory != null && inventory.getHolder(false) instanceof Page page) {
+            return page;
         }
         return null;
     }
@@ -70,6 +90,55 @@ public class Page {
         return pages.get(index);
     }
 
+    /**
+     * Returns the number of live pages, i.e. the size of {@link #pages}.
+     *
+     * @return the number of pages that have not been released
+     */
+    public static int getLivePages() {
+        return pages.size();
+    }
+
+    /**
+     * Returns the number of pages created since CrucialLib was loaded.
+     *
+     * @return the number of constructed pages
+     */
+    public static long getCreatedPages() {
+        return createdPages;
+    }
+
+    /**
+     * Returns the number of times a page was released since CrucialLib was loaded.
+     *
+     * @return the number of releases
+     */
+    public static long getReleasedPages() {
+        return releasedPages;
+    }
+
+    /**
+     * Closes and releases every page owned by a plugin. Called when a plugin is disabled.
+     *
+     * @param plugin the owning plugin
+     */
+    public static void releaseAll(Plugin plugin) {
+        for (Page page : new ArrayList<>(pages)) {
+            if (page.owner == plugin) {
+                page.close();
+            }
+        }
+    }
+
+    /**
+     * Closes and releases every page. Called when CrucialLib is disabled.
+     */
+    public static void releaseAll() {
+        for (Page page : new ArrayList<>(pages)) {
+            page.close();
+        }
+    }
+
     /**
      * Checks whether a {@link Page} exists for the given inventory.
      *
@@ -83,6 +152,8 @@ public class Page {
     private final int size;
     private final String title;
     protected ArrayList<InventoryItem> inventoryItems = new ArrayList<>();
+    /** The item shown in each slot, indexed by slot; {@code null} for fill slots. */
+    private final InventoryItem[] slots;
     private Inventory inventory;
     /**
      * A general-purpose map for storing arbitrary extra data associated with this page.
@@ -91,10 +162,13 @@ public class Page {
     public final HashMap<String, Object> extraData = new HashMap<>();
     private final Material fillMaterial;
     protected boolean isMovable;
+    private final Plugin owner;
+    private boolean isLive = false;
 
     /**
-     * Constructs a new page and registers it in the global {@link #pages} list.
-     * Every subclass must call {@code super()} in its constructor.
+     * Constructs a new page. It is added to the global {@link #pages} list once it is opened.
+     * Every subclass must call {@code super()} in its constructor. The page is owned by
+     * the plugin that provides its class, if any.
      *
      * @param size         the number of rows in the inventory, between 1 and 6 (inclusive);
      *                     this is multiplied by 9 to get the total slot count
@@ -103,12 +177,37 @@ public class Page {
      * @throws IllegalArgumentException if size is not between 1 and 6
      */
     public Page(int size, String title, Material fillMaterial) {
+        this(null, size, title, fillMaterial);
+    }
+
+    /**
+     * Constructs a new page owned by a plugin. It is added to the global {@link #pages} list
+     * once it is opened, and closed and released when the owner is disabled.
+     *
+     * @param owner        the owning plugin; {@code null} uses the plugin that provides the page's class
+     * @param size         the number of rows in the inventory, between 1 and 6 (inclusive);
+     *                     this is multiplied by 9 to get the total slot count
+     * @param title        the display title of the inventory
+     * @param fillMaterial the material used to fill empty slots as a background
+     * @throws IllegalArgumentException if size is not between 1 and 6
+     */
+    public Page(Plugin owner, int size, String title, Material fillMaterial) {
         if (size > 6 || size < 1)
             throw new IllegalArgumentException("Size of an inventory can only be between 1 and 6!");
         this.size = size * 9;
+        this.slots = new InventoryItem[this.size];
         this.title = title;
         this.fillMaterial = fillMaterial;
-        pages.add(this);
+        this.owner = owner != null ? owner : providingPlugin(getClass());
+        createdPages++;
+    }
+
+    private static Plugin providingPlugin(Class<?> type) {
+        try {
+            return JavaPlugin.getProvidingPlugin(type);
+        } catch (RuntimeException e) {
+            return null;
+        }
     }
 
 
@@ -125,23 +224,79 @@ public class Page {
     }
 
     /**
-     * Creates the underlying Bukkit inventory, populates it, and opens it for the given player.
+     * Populates this page's inventory and opens it for the given player. Players that have
+     * the page open already see the same inventory, so they get the update as well.
+     * Adds the page to the global {@link #pages} list if it is not in it.
      *
      * @param player the player to show the inventory to
      */
     public void open(Player player) {
-        inventory = Bukkit.createInventory(null, size, title);
+        if (!isLive) {
+            isLive = true;
+            pages.add(this);
+        }
+        Inventory shared = getInventory();
         reloadInventory();
-        player.openInventory(inventory);
+        // Opening the inventory again would close it first and release the page.
+        if (player.getOpenInventory().getTopInventory() != shared) {
+            player.openInventory(shared);
+        }
+    }
+
+    /**
+     * Removes this page from the global {@link #pages} list. Players that still have its
+     * inventory open can keep using it. Does nothing if the page is already released.
+     */
+    public void release() {
+        if (isLive) {
+            isLive = false;
+            pages.remove(this);
+            releasedPages++;
+        }
+    }
+
+    /**
+     * Closes this page's inventory for every viewer and releases the page.
+     */
+    public void close() {
+        if (inventory != null) {
+            for (HumanEntity viewer : new ArrayList<>(inventory.getViewers())) {
+                viewer.closeInventory();
+            }
+        }
+        release();
+    }
+
+    /**
+     * Checks whether this page is not in {@link #pages}, i.e. it has been released or has
+     * not been opened yet.
+     *
+     * @return {@code true} if the page is not live
+     */
+    public boolean isReleased() {
+        return !isLive;
     }
 
     /**
-     * Adds a single {@link InventoryItem} to this page's item list.
+     * Returns the plugin that owns this page.
+     *
+     * @return the owning plugin, or {@code null} if the page has no owner
+     */
+    public Plugin getOwner() {
+        return owner;
+    }
+
+    /**
+     * Adds a single {@link InventoryItem} to this page's item list. If another item already
+     * occupies the same slot, the item added last is the one shown and clicked.
      *
      * @param item the inventory item to add
+     * @throws IllegalArgumentException if the item's slot is outside this page
      */
     public void addItem(InventoryItem item) {
+        checkSlot(item.getSlot());
         inventoryItems.add(item);
+        slots[item.getSlot()] = item;
     }
 
     /**
@@ -168,33 +323,140 @@ public class Page {
     }
 
     /**
-     * Removes an {@link InventoryItem} from this page's item list.
+     * Removes an {@link InventoryItem} from this page's item list. If an item added earlier
+     * claims the same slot, that item takes the slot again.
      *
      * @param item the inventory item to remove
      */
     public void removeItem(InventoryItem item) {
-        inventoryItems.remove(item);
+        if (inventoryItems.remove(item) && item.getSlot() >= 0 && item.getSlot() < size && slots[item.getSlot()] == item) {
+            slots[item.getSlot()] = null;
+            for (int i = inventoryItems.size() - 1; i >= 0; i--) {
+                InventoryItem earlier = inventoryItems.get(i);
+                if (earlier.getSlot() == item.getSlot()) {
+                    slots[item.getSlot()] = earlier;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces whatever occupies the item's slot with the given item and updates just that
+     * slot of the inventory. Unlike {@link #reloadInventory()}, {@link #populate()} is not run.
+     *
+     * @param item the inventory item to show
+     * @throws IllegalArgumentException if the item's slot is outside this page
+     */
+    public void setItem(InventoryItem item) {
+        checkSlot(item.getSlot());
+        inventoryItems.removeIf(existing -> existing.getSlot() == item.getSlot());
+        inventoryItems.add(item);
+        slots[item.getSlot()] = item;
+        updateSlot(item.getSlot());
+    }
+
+    /**
+     * Removes every {@link InventoryItem} in a slot and shows the fill material there instead.
+     * Only that slot of the inventory is updated.
+     *
+     * @param slot the slot index
+     * @throws IllegalArgumentException if the slot is outside this page
+     */
+    public void clearSlot(int slot) {
+        checkSlot(slot);
+        inventoryItems.removeIf(existing -> existing.getSlot() == slot);
+        slots[slot] = null;
+        updateSlot(slot);
+    }
+
+    /**
+     * Renders a single slot of the inventory again, e.g. after the stack of its
+     * {@link InventoryItem} was changed. Does nothing if the inventory has not been created
+     * yet or the slot already shows the right contents.
+     *
+     * @param slot the slot index
+     * @throws IllegalArgumentException if the slot is outside this page
+     */
+    public void updateSlot(int slot) {
+        checkSlot(slot);
+        if (inventory != null) {
+            render(slot, getFillStack(fillMaterial));
+        }
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= size)
+            throw new IllegalArgumentException("Slot " + slot + " is outside of a page with " + size + " slots!");
+    }
+
+    /**
+     * Returns the {@link InventoryItem} in a slot of this page.
+     *
+     * @param slot the slot index
+     * @return the item shown in the slot, or {@code null} for a fill slot or a slot outside this page
+     */
+    public InventoryItem getInventoryItem(int slot) {
+        return slot >= 0 && slot < size ? slots[slot] : null;
     }
 
     /**
-     * Clears and rebuilds the inventory contents. Fills all slots with the fill material,
-     * then calls {@link #populate()} to re-add items, and finally places each item into
-     * its designated slot. Does nothing if the inventory has not been created yet.
+     * Rebuilds the inventory contents. Calls {@link #populate()} to re-add items, then
+     * renders every slot: slots with an item show that item, all others the fill material.
+     * Only slots whose contents actually change are updated, so viewers are sent just the
+     * difference. Does nothing if the inventory has not been created yet.
      */
     public void reloadInventory() {
         if (inventory != null) {
-            inventory.clear();
-            for (int i = 0; i < inventory.getSize(); i++) {
-                inventory.setItem(i, new InventoryItem(i, new ItemStack(fillMaterial)).getItem());
-            }
             inventoryItems = new ArrayList<>();
+            Arrays.fill(slots, null);
             populate();
+            // Subclasses may add to inventoryItems directly, so the slot table is rebuilt from it.
             for (InventoryItem item : inventoryItems) {
-                inventory.setItem(item.getSlot(), item.getItem());
+                slots[item.getSlot()] = item;
             }
+            render();
         }
     }
 
+    /**
+     * Updates every slot of the inventory whose contents differ from the slot table.
+     */
+    private void render() {
+        ItemStack fill = getFillStack(fillMaterial);
+        for (int slot = 0; slot < size; slot++) {
+            render(slot, fill);
+        }
+    }
+
+    private void render(int slot, ItemStack fill) {
+        ItemStack target = slots[slot] != null ? slots[slot].getItem() : fill;
+        if (!isDisplayed(inventory.getItem(slot), target)) {
+            inventory.setItem(slot, target);
+        }
+    }
+
+    private static boolean isDisplayed(ItemStack current, ItemStack target) {
+        boolean currentEmpty = current == null || current.getType().isAir();
+        boolean targetEmpty = target == null || target.getType().isAir();
+        if (currentEmpty || targetEmpty) {
+            return currentEmpty == targetEmpty;
+        }
+        return current.equals(target);
+    }
+
+    /**
+     * Returns the shared background stack of a fill material, built on first use.
+     *
+     * @return the fill stack, or {@code null} for air
+     */
+    static ItemStack getFillStack(Material material) {
+        if (material == null || material.isAir()) {
+            return null;
+        }
+        return FILL_STACKS.computeIfAbsent(material, type -> new InventoryItem(0, new ItemStack(type)).getItem());
+    }
+
     /**
      * Handles an {@link InventoryClickEvent} by finding the matching {@link InventoryItem}
      * at the clicked slot and executing its action. Left-click events from players are
@@ -204,15 +466,14 @@ public class Page {
      */
     public void click(InventoryClickEvent event) {
         if (event.getWhoClicked() instanceof Player && event.isLeftClick()) {
-            for (InventoryItem item : inventoryItems) {
-                if (event.getCurrentItem() != null && item.getItem().getType() == event.getCurrentItem().getType() &&
-                item.getSlot() == event.getSlot()) {
-                    item.execute(new InventoryClick(event, this));
-                    if(!item.isMovable){
-                        event.setCancelled(true);
-                    }
-                    return;
+            // Raw slots below the page size are in the page; higher ones are in the player's inventory.
+            InventoryItem item = getInventoryItem(event.getRawSlot());
+            if (item != null && event.getCurrentItem() != null && item.getItem().getType() == event.getCurrentItem().getType()) {
+                item.execute(new InventoryClick(event, this));
+                if(!item.isMovable){
+                    event.setCancelled(true);
                 }
+                return;
             }
         }
         if(event.getCurrentItem() != null && event.getCurrentItem().getType() == fillMaterial) {
@@ -222,29 +483,34 @@ public class Page {
 
     /**
      * Finds the {@link InventoryItem} in this page that matches the given {@link ItemStack}.
+     * The stack's slot tag names the slot to check, so no other item is compared.
      * If the item matches the fill material but is not a registered inventory item,
      * a default placeholder item is returned.
      *
      * @param item the item stack to look up
      * @return the matching inventory item, a fill-material placeholder, or {@code null} if not found
+     * @see InventoryItem#getSlot(ItemStack)
      */
     public InventoryItem getInventoryItem(ItemStack item) {
-        for (InventoryItem inventoryItem : inventoryItems) {
-            if (inventoryItem.getItem().equals(item)) {
-                return inventoryItem;
-            }
+        InventoryItem inventoryItem = getInventoryItem(InventoryItem.getSlot(item));
+        if (inventoryItem != null && inventoryItem.getItem().equals(item)) {
+            return inventoryItem;
         }
         if(item.getType() == fillMaterial) return new InventoryItem(0, item);
         return null;
     }
 
     /**
-     * Returns the underlying Bukkit {@link Inventory} for this page.
-     * May be {@code null} if {@link #open(Player)} has not been called yet.
+     * Returns the underlying Bukkit {@link Inventory} for this page, creating it on first use.
+     * It stays empty until the page is {@linkplain #open(Player) opened}.
      *
-     * @return the Bukkit inventory, or {@code null} if not yet created
+     * @return the Bukkit inventory
      */
+    @Override
     public Inventory getInventory() {
+        if (inventory == null) {
+            inventory = Bukkit.createInventory(this, size, title);
+        }
         return inventory;
     }
 }
@@ -8,14 +8,17 @@ import org.bukkit.inventory.ItemStack;
 /**
  * A prefab that creates an ON/OFF toggle button pair. Clicking the ON button swaps it
  * to the OFF button and vice versa, executing the corresponding action on each toggle.
- * Both buttons occupy the same inventory slot, and the page is reloaded after each toggle.
+ * Both buttons occupy the same inventory slot; a toggle only updates that slot of the page.
+ *
+ * <p>The prefab remembers its state, so keep it in a field of the page rather than creating
+ * it in {@code populate()}; then reloading the page shows the current state.
  *
  * @see InventoryItemPrefab
  * @see YesNoButtonsPrefab
  */
 public class TogglePrefab implements InventoryItemPrefab {
     private final InventoryItem[] items;
-    private final boolean isOn;
+    private boolean isOn;
 
     /**
      * Creates a toggle prefab with custom item stacks for the ON and OFF states.
@@ -30,16 +33,14 @@ public class TogglePrefab implements InventoryItemPrefab {
     public TogglePrefab(int slot, ItemStack onItem, ItemStack offItem, InventoryItem.Action toggleOn, InventoryItem.Action toggleOff, boolean isOn) {
         this.items = new InventoryItem[2];
         this.items[0] = new InventoryItem(slot, onItem, (click) -> {
-            toggleOn.run(click);
-            click.getPage().removeItem(items[0]);
-            click.getPage().addItem(items[1]);
-            click.getPage().reloadInventory();
+            this.isOn = false;
+            toggleOff.run(click);
+            click.getPage().setItem(items[1]);
         });
         this.items[1] = new InventoryItem(slot, offItem, (click) -> {
-            toggleOff.run(click);
-            click.getPage().removeItem(items[1]);
-            click.getPage().addItem(items[0]);
-            click.getPage().reloadInventory();
+            this.isOn = true;
+            toggleOn.run(click);
+            click.getPage().setItem(items[0]);
         });
         this.isOn = isOn;
     }
@@ -68,6 +69,15 @@ public class TogglePrefab implements InventoryItemPrefab {
     }
 
 
+    /**
+     * Returns the current state of the toggle.
+     *
+     * @return {@code true} if the toggle is ON
+     */
+    public boolean isOn() {
+        return isOn;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -75,6 +85,6 @@ public class TogglePrefab implements InventoryItemPrefab {
      */
     @Override
     public InventoryItem[] getItems() {
-        return new InventoryItem[isOn ? 0 : 1];
+        return new InventoryItem[]{items[isOn ? 0 : 1]};
     }
 }
@@ -0,0 +1,282 @@
+package io.github.chafficui.CrucialLib.io;
+
+import io.github.chafficui.CrucialLib.Utils.customItems.CrucialItem;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Compact binary serialization of {@link ItemStack}s for plugin storage.
+ *
+ * <p>Stacks of a registered {@link CrucialItem} that match the item's own stack are
+ * written as just the item id and the amount (18 bytes), and damaged ones with the damage
+ * added. The first such stack of each item in a call also stores the item's full stack
+ * once. On load, stacks are rebuilt from the item. Any other stack falls back to the full
+ * Bukkit serialization. Empty slots take one byte, so whole inventories can be stored
+ * as they are.
+ *
+ * <p>If a CrucialItem is not registered when its stacks are read back, e.g. because the
+ * plugin providing it loads later or was removed, the stacks are rebuilt from the stored
+ * full stack instead. They keep their CrucialItem id and resolve again once the item is
+ * registered. Nothing is dropped.
+ *
+ * <p>Serializing never modifies the given stacks.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * String stash = StackSerializer.toBase64(player.getInventory().getContents());
+ * config.set("stash." + player.getUniqueId(), stash);
+ *
+ * ItemStack[] contents = StackSerializer.fromBase64(config.getString("stash." + player.getUniqueId()));
+ * }</pre>
+ */
+public class StackSerializer {
+    private static final int MAGIC = 0xC5;
+    private static final int VERSION = 2;
+
+    private static final int EMPTY = 0;
+    private static final int CRUCIAL = 1;
+    private static final int CRUCIAL_DAMAGED = 2;
+    private static final int FULL = 3;
+    private static final int CRUCIAL_STORED = 4;
+
+    /**
+     * Serializes an array of stacks, e.g. the contents of an inventory.
+     *
+     * @param stacks the stacks; {@code null} entries are written as empty slots
+     * @return the serialized stacks
+     * @throws IOException if a stack cannot be serialized
+     */
+    public static byte[] serialize(ItemStack[] stacks) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + stacks.length * 18);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(stacks.length);
+        Set<UUID> stored = new HashSet<>();
+        for (ItemStack stack : stacks) {
+            write(out, stack, stored);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads stacks written by {@link #serialize(ItemStack[])}.
+     *
+     * @param data the serialized stacks
+     * @return the stacks, with {@code null} for empty slots
+     * @throws IOException if the data is not in this format or is damaged, or if it refers to
+     *                     an unregistered CrucialItem without a stored stack (only in data
+     *                     written by older versions)
+     */
+    public static ItemStack[] deserialize(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readUnsignedByte() != MAGIC) {
+            throw new IOException("Not a serialized stack array");
+        }
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported stack array version " + version);
+        }
+        int length = in.readInt();
+        if (length < 0 || length > data.length) {
+            throw new IOException("Invalid stack count " + length);
+        }
+        ItemStack[] stacks = new ItemStack[length];
+        Map<UUID, ItemStack> stored = new HashMap<>();
+        for (int i = 0; i < length; i++) {
+            stacks[i] = read(in, stored);
+        }
+        return stacks;
+    }
+
+    /**
+     * Serializes an array of stacks into a Base64 string, for storage in YAML or JSON files.
+     *
+     * @param stacks the stacks; {@code null} entries are written as empty slots
+     * @return the serialized stacks as Base64
+     * @throws IOException if a stack cannot be serialized
+     */
+    public static String toBase64(ItemStack[] stacks) throws IOException {
+        return Base64.getEncoder().encodeToString(serialize(stacks));
+    }
+
+    /**
+     * Reads stacks written by {@link #toBase64(ItemStack[])}.
+     *
+     * @param data the serialized stacks as Base64
+     * @return the stacks, with {@code null} for empty slots
+     * @throws IOException if the data is not in this format or is damaged
+     */
+    public static ItemStack[] fromBase64(String data) throws IOException {
+        try {
+            return deserialize(Base64.getDecoder().decode(data));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid Base64 stack data", e);
+        }
+    }
+
+    /**
+     * Writes a single stack. A CrucialItem stack always carries the item's full stack, so
+     * {@link #serialize(ItemStack[])} is more compact for many stacks.
+     *
+     * @param out   the output to write to
+     * @param stack the stack, or {@code null} for an empty slot
+     * @throws IOException if the stack cannot be written
+     */
+    public static void write(DataOutput out, ItemStack stack) throws IOException {
+        write(out, stack, new HashSet<>());
+    }
+
+    /**
+     * Writes a single stack. The full stack of a CrucialItem is only written for the first
+     * of its stacks, i.e. if its id is not in {@code stored} yet.
+     */
+    private static void write(DataOutput out, ItemStack stack, Set<UUID> stored) throws IOException {
+        if (stack == null || stack.getType().isAir() || stack.getAmount() <= 0) {
+            out.writeByte(EMPTY);
+            return;
+        }
+        // findByStack never migrates legacy tags, so the caller's stack is left as it is.
+        CrucialItem item = CrucialItem.findByStack(stack);
+        ItemStack prototype = item == null ? null : item.getItemStack();
+        if (prototype != null && stack.getAmount() <= 0xFF) {
+            int damage = 0;
+            boolean matches = stack.isSimilar(prototype);
+            if (!matches) {
+                damage = getDamage(stack);
+                if (damage > 0) {
+                    ItemStack repaired = stack.clone();
+                    setDamage(repaired, 0);
+                    matches = repaired.isSimilar(prototype);
+                }
+            }
+            if (matches) {
+                UUID id = item.getId();
+                if (stored.add(id)) {
+                    writeCrucial(out, CRUCIAL_STORED, id, stack.getAmount());
+                    out.writeInt(damage);
+                    writeObject(out, prototype);
+                } else if (damage > 0) {
+                    writeCrucial(out, CRUCIAL_DAMAGED, id, stack.getAmount());
+                    out.writeInt(damage);
+                } else {
+                    writeCrucial(out, CRUCIAL, id, stack.getAmount());
+                }
+                return;
+            }
+        }
+        out.writeByte(FULL);
+        writeObject(out, stack);
+    }
+
+    private static void writeCrucial(DataOutput out, int kind, UUID id, int amount) throws IOException {
+        out.writeByte(kind);
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+        out.writeByte(amount);
+    }
+
+    private static void writeObject(DataOutput out, ItemStack stack) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BukkitObjectOutputStream objects = new BukkitObjectOutputStream(bytes)) {
+            objects.writeObject(stack);
+        }
+        out.writeInt(bytes.size());
+        out.write(bytes.toByteArray());
+    }
+
+    /**
+     * Reads a single stack written by {@link #write(DataOutput, ItemStack)}.
+     *
+     * @param in the input to read from
+     * @return the stack, or {@code null} for an empty slot
+     * @throws IOException if the data is not in this format or is damaged
+     */
+    public static ItemStack read(DataInput in) throws IOException {
+        return read(in, new HashMap<>());
+    }
+
+    /**
+     * Reads a single stack. Full CrucialItem stacks read along the way are kept in
+     * {@code stored} for the later stacks of the same item.
+     */
+    private static ItemStack read(DataInput in, Map<UUID, ItemStack> stored) throws IOException {
+        int kind = in.readUnsignedByte();
+        switch (kind) {
+            case EMPTY:
+                return null;
+            case CRUCIAL:
+            case CRUCIAL_DAMAGED:
+            case CRUCIAL_STORED: {
+                UUID id = new UUID(in.readLong(), in.readLong());
+                int amount = in.readUnsignedByte();
+                int damage = kind == CRUCIAL ? 0 : in.readInt();
+                if (kind == CRUCIAL_STORED) {
+                    stored.put(id, readObject(in));
+                }
+                CrucialItem item = CrucialItem.getById(id);
+                ItemStack stack = item == null ? null : item.getItemStack();
+                if (stack == null) {
+                    ItemStack fallback = stored.get(id);
+                    if (fallback == null) {
+                        throw new IOException("CrucialItem " + id + " is not registered and its stack was not stored");
+                    }
+                    stack = fallback.clone();
+                }
+                stack.setAmount(amount);
+                if (damage > 0) {
+                    setDamage(stack, damage);
+                }
+                return stack;
+            }
+            case FULL:
+                return readObject(in);
+            default:
+                throw new IOException("Unknown stack record " + kind);
+        }
+    }
+
+    private static ItemStack readObject(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid stack length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        try (BukkitObjectInputStream objects = new BukkitObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (ItemStack) objects.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Invalid stack data", e);
+        }
+    }
+
+    private static int getDamage(ItemStack stack) {
+        return stack.getItemMeta() instanceof Damageable damageable ? damageable.getDamage() : 0;
+    }
+
+    private static void setDamage(ItemStack stack, int damage) {
+        ItemMeta meta = stack.getItemMeta();
+        if (meta instanceof Damageable damageable) {
+            damageable.setDamage(damage);
+            stack.setItemMeta(meta);
+        }
+    }
+}
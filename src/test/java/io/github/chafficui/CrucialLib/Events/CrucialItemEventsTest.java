@@ -112,4 +112,123 @@ class CrucialItemEventsTest {
         assertNotNull(found);
         assertTrue(found.isAllowedForCrafting, "Crafting flag should be accessible via stack lookup");
     }
+
+    // --- Crafting grid evaluation ---
+
+    private static ItemStack[] grid(ItemStack center) {
+        ItemStack[] matrix = new ItemStack[9];
+        matrix[4] = center;
+        return matrix;
+    }
+
+    @Test
+    void gridWithNonAllowedCrucialItemIsBlocked() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem blocked = new CrucialItem("Blocked", Material.GOLD_INGOT, List.of(), recipe, "test", true, true, false);
+        blocked.register();
+
+        CrucialItemEvents.CraftingGrid grid = new CrucialItemEvents.CraftingGrid();
+        assertTrue(grid.isBlocked(grid(blocked.getItemStack()), new ItemStack(Material.GOLD_BLOCK)));
+    }
+
+    @Test
+    void gridWithAllowedCrucialItemAndVanillaResultIsNotBlocked() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem allowed = new CrucialItem("Allowed", Material.GOLD_INGOT, List.of(), recipe, "test", true, true, true);
+        allowed.register();
+
+        CrucialItemEvents.CraftingGrid grid = new CrucialItemEvents.CraftingGrid();
+        assertFalse(grid.isBlocked(grid(allowed.getItemStack()), new ItemStack(Material.GOLD_BLOCK)));
+    }
+
+    @Test
+    void gridWithAllowedCrucialItemAndCrucialResultIsBlocked() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem allowed = new CrucialItem("Allowed", Material.GOLD_INGOT, List.of(), recipe, "test", true, true, true);
+        CrucialItem result = new CrucialItem("Result", Material.GOLDEN_SWORD, List.of(), recipe, "test", true, true, false);
+        allowed.register();
+        result.register();
+
+        CrucialItemEvents.CraftingGrid grid = new CrucialItemEvents.CraftingGrid();
+        assertTrue(grid.isBlocked(grid(allowed.getItemStack()), result.getItemStack()));
+    }
+
+    @Test
+    void plainGridIsNotBlocked() {
+        CrucialItemEvents.CraftingGrid grid = new CrucialItemEvents.CraftingGrid();
+        assertFalse(grid.isBlocked(grid(new ItemStack(Material.STONE)), new ItemStack(Material.STONE_BUTTON)));
+        assertFalse(grid.isBlocked(new ItemStack[9], null));
+    }
+
+    @Test
+    void repeatedGridReflectsFlagChanges() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Item", Material.GOLD_INGOT, List.of(), recipe, "test", true, true, false);
+        item.register();
+        ItemStack[] matrix = grid(item.getItemStack());
+        ItemStack result = new ItemStack(Material.GOLD_BLOCK);
+
+        CrucialItemEvents.CraftingGrid grid = new CrucialItemEvents.CraftingGrid();
+        assertTrue(grid.isBlocked(matrix, result));
+        item.isAllowedForCrafting = true;
+        assertFalse(grid.isBlocked(matrix, result));
+    }
+
+    @Test
+    void changedGridIsEvaluatedAgain() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Item", Material.GOLD_INGOT, List.of(), recipe, "test", true, true, false);
+        item.register();
+        ItemStack result = new ItemStack(Material.GOLD_BLOCK);
+
+        CrucialItemEvents.CraftingGrid grid = new CrucialItemEvents.CraftingGrid();
+        assertFalse(grid.isBlocked(grid(new ItemStack(Material.GOLD_INGOT)), result));
+        assertTrue(grid.isBlocked(grid(item.getItemStack()), result));
+    }
+
+    @Test
+    void unregisteredIngredientNoLongerBlocks() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Item", Material.GOLD_INGOT, List.of(), recipe, "test", true, true, false);
+        item.register();
+        ItemStack[] matrix = grid(item.getItemStack());
+        ItemStack result = new ItemStack(Material.GOLD_BLOCK);
+
+        CrucialItemEvents.CraftingGrid grid = new CrucialItemEvents.CraftingGrid();
+        assertTrue(grid.isBlocked(matrix, result));
+        item.unregister();
+        assertFalse(grid.isBlocked(matrix, result));
+    }
+
+    @Test
+    void itemRegisteredAfterGridWasResolvedBlocks() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Item", Material.GOLD_INGOT, List.of(), recipe, "test", true, true, false);
+        item.register();
+        ItemStack[] matrix = grid(item.getItemStack());
+        ItemStack result = new ItemStack(Material.GOLD_BLOCK);
+        item.unregister();
+
+        CrucialItemEvents.CraftingGrid grid = new CrucialItemEvents.CraftingGrid();
+        assertFalse(grid.isBlocked(matrix, result));
+        item.register();
+        assertTrue(grid.isBlocked(matrix, result));
+    }
+
+    @Test
+    void resultRegisteredAfterGridWasResolvedBlocks() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem allowed = new CrucialItem("Allowed", Material.GOLD_INGOT, List.of(), recipe, "test", true, true, true);
+        CrucialItem result = new CrucialItem("Result", Material.GOLDEN_SWORD, List.of(), recipe, "test", true, true, false);
+        allowed.register();
+        result.register();
+        ItemStack[] matrix = grid(allowed.getItemStack());
+        ItemStack resultStack = result.getItemStack();
+        result.unregister();
+
+        CrucialItemEvents.CraftingGrid grid = new CrucialItemEvents.CraftingGrid();
+        assertFalse(grid.isBlocked(matrix, resultStack));
+        result.register();
+        assertTrue(grid.isBlocked(matrix, resultStack));
+    }
 }
@@ -1,11 +1,15 @@
 package io.github.chafficui.CrucialLib;
 
+import io.github.chafficui.CrucialLib.Utils.customItems.Item;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockbukkit.mockbukkit.MockBukkit;
 import org.mockbukkit.mockbukkit.ServerMock;
 
+import java.io.File;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class MainTest {
@@ -40,4 +44,27 @@ class MainTest {
         assertNotNull(plugin.getVersion());
         assertFalse(plugin.getVersion().isEmpty());
     }
+
+    @Test
+    void optionsAreWrittenToDataFolder() {
+        File file = new File(plugin.getDataFolder(), "options.yml");
+
+        assertTrue(file.exists());
+        assertFalse(YamlConfiguration.loadConfiguration(file).getBoolean("settings.QUIET_RECIPES"));
+    }
+
+    @Test
+    void editedOptionsAreReadOnEnable() throws Exception {
+        File file = new File(plugin.getDataFolder(), "options.yml");
+        YamlConfiguration options = YamlConfiguration.loadConfiguration(file);
+        options.set("settings.QUIET_RECIPES", true);
+        options.save(file);
+
+        server.getPluginManager().disablePlugin(plugin);
+        server.getPluginManager().enablePlugin(plugin);
+
+        assertTrue(Item.isQuiet());
+        assertTrue(YamlConfiguration.loadConfiguration(file).getBoolean("settings.QUIET_RECIPES"));
+        Item.setQuiet(false);
+    }
 }
@@ -0,0 +1,81 @@
+package io.github.chafficui.CrucialLib.Utils;
+
+import io.github.chafficui.CrucialLib.Main;
+import org.bukkit.NamespacedKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrucialKeysTest {
+
+    private ServerMock server;
+    private Main plugin;
+
+    @BeforeEach
+    void setUp() {
+        server = MockBukkit.mock();
+        plugin = MockBukkit.load(Main.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    void pluginHandleIsCachedOnEnable() {
+        assertSame(plugin, CrucialKeys.getPlugin());
+    }
+
+    @Test
+    void keysUseCrucialLibNamespace() {
+        assertEquals(new NamespacedKey(plugin, "crucialitem_uid"), CrucialKeys.getItemIdKey());
+        assertEquals(new NamespacedKey(plugin, "crucialitem_id"), CrucialKeys.getLegacyItemIdKey());
+        assertEquals(new NamespacedKey(plugin, "inventoryitem"), CrucialKeys.getInventoryItemKey());
+    }
+
+    @Test
+    void repeatedCallsReturnSameInstance() {
+        assertSame(CrucialKeys.getItemIdKey(), CrucialKeys.getItemIdKey());
+        assertSame(CrucialKeys.getInventoryItemKey(), CrucialKeys.getInventoryItemKey());
+    }
+
+    @Test
+    void keysAreResolvedAgainAfterInvalidate() {
+        NamespacedKey before = CrucialKeys.getItemIdKey();
+        CrucialKeys.invalidate();
+
+        NamespacedKey after = CrucialKeys.getItemIdKey();
+        assertNotNull(after);
+        assertEquals(before, after);
+        assertSame(plugin, CrucialKeys.getPlugin());
+    }
+
+    @Test
+    void keyLookupAllocatesNothing() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int calls = 100_000;
+        int sink = 0;
+        for (int i = 0; i < calls; i++) {
+            sink += CrucialKeys.getItemIdKey().hashCode();
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < calls; i++) {
+            sink += CrucialKeys.getItemIdKey().hashCode();
+            sink += CrucialKeys.getLegacyItemIdKey().hashCode();
+            sink += CrucialKeys.getInventoryItemKey().hashCode();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Creating a NamespacedKey per call would allocate several megabytes here.
+        assertTrue(allocated < 16 * 1024, "Key lookups allocated " + allocated + " bytes (sink " + sink + ")");
+    }
+}
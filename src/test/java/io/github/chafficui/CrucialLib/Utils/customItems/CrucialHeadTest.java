@@ -4,13 +4,17 @@ import io.github.chafficui.CrucialLib.Main;
 import io.github.chafficui.CrucialLib.exceptions.CrucialException;
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.SkullMeta;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockbukkit.mockbukkit.MockBukkit;
 import org.mockbukkit.mockbukkit.ServerMock;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,6 +33,7 @@ class CrucialHeadTest {
     @AfterEach
     void tearDown() {
         CrucialItem.CRUCIAL_ITEMS.clear();
+        HeadTextureCache.clear();
         MockBukkit.unmock();
     }
 
@@ -66,6 +71,17 @@ class CrucialHeadTest {
         assertTrue(ex.getMessage().contains("008"));
     }
 
+    @Test
+    void registerAllReportsHeadWithoutOwner() {
+        CrucialHead head = new CrucialHead("trophy");
+        head.setName("Bad Head");
+        head.setRecipe(new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"});
+
+        Map<CrucialItem, CrucialException> failures = CrucialItem.registerAll(List.of(head));
+        assertTrue(failures.get(head).getMessage().contains("008"));
+        assertFalse(head.isRegistered());
+    }
+
     @Test
     void registerWithOwnerSucceeds() throws CrucialException {
         UUID owner = UUID.randomUUID();
@@ -151,4 +167,46 @@ class CrucialHeadTest {
 
         assertEquals(CrucialItem.getId(head.getItemStack()), CrucialItem.getId(head.getItemStack()));
     }
+
+    // --- Texture tests ---
+
+    private static final String SKIN = "http://textures.minecraft.net/texture/4b6f0c1b5e3c2e7a9d8f6a5b4c3d2e1f0a9b8c7d6e5f4a3b2c1d0e9f8a7b6c5d";
+
+    @Test
+    void texturedHeadRegistersWithoutOwner() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialHead head = new CrucialHead("Globe", SKIN, List.of(), recipe, "decoration", true, true, false);
+        head.register();
+
+        ItemStack stack = head.getItemStack();
+        assertNull(head.getHeadOwner());
+        assertEquals(SKIN, ((SkullMeta) stack.getItemMeta()).getOwnerProfile().getTextures().getSkin().toString());
+        assertSame(head, CrucialItem.getByStack(stack));
+    }
+
+    @Test
+    void textureFormatsResolveToSameSkin() {
+        String hash = SKIN.substring(SKIN.lastIndexOf('/') + 1);
+        String base64 = Base64.getEncoder().encodeToString(
+                ("{\"textures\":{\"SKIN\":{\"url\":\"" + SKIN + "\"}}}").getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(SKIN, HeadTextureCache.parseTexture(SKIN).toString());
+        assertEquals(SKIN, HeadTextureCache.parseTexture(hash).toString());
+        assertEquals(SKIN, HeadTextureCache.parseTexture(base64).toString());
+        assertNull(HeadTextureCache.parseTexture("not a texture"));
+    }
+
+    @Test
+    void texturedHeadsShareOneProfile() {
+        assertSame(HeadTextureCache.getTextureProfile(SKIN), HeadTextureCache.getTextureProfile(SKIN));
+    }
+
+    @Test
+    void invalidTextureThrowsException() {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialHead head = new CrucialHead("Globe", "not a texture", List.of(), recipe, "decoration", true, true, false);
+
+        CrucialException e = assertThrows(CrucialException.class, head::register);
+        assertTrue(e.getMessage().contains("002"));
+    }
 }
@@ -0,0 +1,146 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import io.github.chafficui.CrucialLib.Main;
+import io.github.chafficui.CrucialLib.exceptions.CrucialException;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrucialItemIdsTest {
+
+    private static final String[] RECIPE = {"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+
+    private ServerMock server;
+    private Main plugin;
+
+    @TempDir
+    File folder;
+
+    @BeforeEach
+    void setUp() {
+        server = MockBukkit.mock();
+        plugin = MockBukkit.load(Main.class);
+        CrucialItem.CRUCIAL_ITEMS.clear();
+        CrucialItemIds.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        CrucialItem.CRUCIAL_ITEMS.clear();
+        CrucialItemIds.clear();
+        MockBukkit.unmock();
+    }
+
+    private CrucialItem sword(NamespacedKey key) {
+        return new CrucialItem(key, "Sword", Material.DIAMOND_SWORD, List.of(), RECIPE, "weapon", true, true, false);
+    }
+
+    @Test
+    void sameKeyGivesSameId() {
+        NamespacedKey key = new NamespacedKey(plugin, "ruby_sword");
+        assertEquals(sword(key).getId(), sword(key).getId());
+        assertNotEquals(sword(key).getId(), sword(new NamespacedKey(plugin, "ruby_axe")).getId());
+    }
+
+    @Test
+    void idIsDerivedWithoutIndex() {
+        NamespacedKey key = new NamespacedKey(plugin, "ruby_sword");
+        UUID first = CrucialItemIds.idFor(key);
+        CrucialItemIds.clear();
+
+        assertEquals(first, CrucialItemIds.idFor(key));
+    }
+
+    @Test
+    void unkeyedItemsKeepRandomIds() {
+        CrucialItem item = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), RECIPE, "weapon", true, true, false);
+        assertNull(item.getKey());
+        assertNotEquals(item.getId(), new CrucialItem("weapon").getId());
+    }
+
+    @Test
+    void stackResolvesAfterRestart() throws CrucialException {
+        NamespacedKey key = new NamespacedKey(plugin, "ruby_sword");
+        CrucialItem before = sword(key);
+        before.register();
+        ItemStack stack = before.getItemStack();
+
+        // Simulate a restart: the old item is gone and the item is created anew.
+        before.unregister();
+        CrucialItem after = sword(key);
+        after.register();
+
+        assertSame(after, CrucialItem.getByStack(stack));
+        assertSame(after, CrucialItem.getByKey(key));
+    }
+
+    @Test
+    void getByKeyReturnsNullForUnknownKey() {
+        assertNull(CrucialItem.getByKey(new NamespacedKey(plugin, "missing")));
+        assertNull(CrucialItem.getByKey(null));
+    }
+
+    @Test
+    void lookupDoesNotRecordKey() {
+        NamespacedKey key = new NamespacedKey(plugin, "stale");
+        UUID id = CrucialItemIds.peek(key);
+
+        assertNull(CrucialItem.getByKey(key));
+        assertNull(CrucialItemIds.keyOf(id));
+        assertEquals(id, CrucialItemIds.idFor(key));
+        assertEquals(key, CrucialItemIds.keyOf(id));
+    }
+
+    @Test
+    void pinnedIdIsUsedForKey() throws CrucialException {
+        CrucialItem legacy = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), RECIPE, "weapon", true, true, false);
+        legacy.register();
+        ItemStack stack = legacy.getItemStack();
+        legacy.unregister();
+
+        NamespacedKey key = new NamespacedKey(plugin, "legacy_sword");
+        CrucialItemIds.pin(key, legacy.getId());
+        CrucialItem keyed = sword(key);
+        keyed.register();
+
+        assertEquals(legacy.getId(), keyed.getId());
+        assertSame(keyed, CrucialItem.getByStack(stack));
+        assertEquals(key, CrucialItemIds.keyOf(legacy.getId()));
+    }
+
+    @Test
+    void indexSurvivesSaveAndLoad() throws IOException {
+        File file = new File(folder, "ids.yml");
+        NamespacedKey dotted = new NamespacedKey(plugin, "swords.ruby");
+        NamespacedKey pinned = new NamespacedKey(plugin, "legacy");
+        UUID legacyId = UUID.randomUUID();
+        UUID dottedId = CrucialItemIds.idFor(dotted);
+        CrucialItemIds.pin(pinned, legacyId);
+        CrucialItemIds.save(file);
+
+        CrucialItemIds.clear();
+        CrucialItemIds.load(file);
+
+        assertEquals(dottedId, CrucialItemIds.idFor(dotted));
+        assertEquals(legacyId, CrucialItemIds.idFor(pinned));
+    }
+
+    @Test
+    void loadingMissingFileIsNoOp() {
+        CrucialItemIds.load(new File(folder, "missing.yml"));
+        assertNotNull(CrucialItemIds.idFor(new NamespacedKey(plugin, "any")));
+    }
+}
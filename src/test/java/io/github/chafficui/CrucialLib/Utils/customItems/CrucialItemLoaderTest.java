@@ -0,0 +1,355 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import io.github.chafficui.CrucialLib.Main;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrucialItemLoaderTest {
+
+    private static final String SWORD_YAML = String.join("\n",
+            "ruby_sword:",
+            "  name: Ruby Sword",
+            "  material: diamond_sword",
+            "  type: weapon",
+            "  lore:",
+            "    - Forged from rubies",
+            "  recipe: [AIR, REDSTONE, AIR, AIR, REDSTONE, AIR, AIR, STICK, AIR]",
+            "  usable: false",
+            "");
+
+    private static final String GEM_JSON = String.join("\n",
+            "{",
+            "  \"ruby\": {",
+            "    \"name\": \"Ruby\",",
+            "    \"material\": \"EMERALD\",",
+            "    \"type\": \"gem\",",
+            "    \"recipe\": [\"AIR\", \"AIR\", \"AIR\", \"AIR\", \"REDSTONE_BLOCK\", \"AIR\", \"AIR\", \"AIR\", \"AIR\"],",
+            "    \"craftable\": false,",
+            "    \"allowedForCrafting\": true",
+            "  }",
+            "}");
+
+    private ServerMock server;
+    private Main plugin;
+
+    @TempDir
+    File folder;
+
+    @BeforeEach
+    void setUp() {
+        server = MockBukkit.mock();
+        plugin = MockBukkit.load(Main.class);
+        CrucialItem.CRUCIAL_ITEMS.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        CrucialItem.CRUCIAL_ITEMS.clear();
+        MockBukkit.unmock();
+    }
+
+    private File write(String name, String content) throws IOException {
+        File file = new File(folder, name);
+        Files.writeString(file.toPath(), content);
+        return file;
+    }
+
+    @Test
+    void loadsYamlDefinition() throws IOException {
+        CrucialItemLoader.Result result = new CrucialItemLoader(plugin).load(List.of(write("items.yml", SWORD_YAML)));
+
+        assertTrue(result.isSuccessful(), () -> result.getErrors().toString());
+        CrucialItem sword = result.getItems().get("ruby_sword");
+        assertNotNull(sword);
+        assertTrue(sword.isRegistered());
+        assertEquals("Ruby Sword", sword.getName());
+        assertEquals("DIAMOND_SWORD", sword.getMaterial());
+        assertEquals("weapon", sword.getType());
+        assertEquals("REDSTONE", sword.getRecipe()[1]);
+        assertFalse(sword.isUsable);
+        assertTrue(sword.isCraftable);
+        assertFalse(sword.isAllowedForCrafting);
+    }
+
+    @Test
+    void loadedItemsAreKeyedByPluginAndItemKey() throws IOException {
+        File file = write("items.yml", SWORD_YAML);
+        CrucialItem sword = new CrucialItemLoader(plugin).load(List.of(file)).getItems().get("ruby_sword");
+
+        NamespacedKey key = new NamespacedKey(plugin, "ruby_sword");
+        assertEquals(key, sword.getKey());
+        assertEquals(CrucialItemIds.idFor(key), sword.getId());
+        assertSame(sword, CrucialItem.getByKey(key));
+    }
+
+    @Test
+    void invalidItemKeyIsReported() throws IOException {
+        CrucialItemLoader.Result result = new CrucialItemLoader(plugin)
+                .load(List.of(write("items.yml", SWORD_YAML.replace("ruby_sword:", "Ruby Sword:"))));
+
+        assertTrue(result.getItems().isEmpty());
+        assertTrue(result.getErrors().containsKey("Ruby Sword"));
+    }
+
+    @Test
+    void loadsJsonDefinitionWithDefaults() throws IOException {
+        CrucialItemLoader.Result result = new CrucialItemLoader(plugin).load(List.of(write("gems.json", GEM_JSON)));
+
+        assertTrue(result.isSuccessful(), () -> result.getErrors().toString());
+        CrucialItem ruby = result.getItems().get("ruby");
+        assertEquals(Material.EMERALD.name(), ruby.getMaterial());
+        assertFalse(ruby.isCraftable);
+        assertTrue(ruby.isUsable);
+        assertTrue(ruby.isAllowedForCrafting);
+        assertSame(ruby, CrucialItem.getByStack(ruby.getItemStack()));
+    }
+
+    @Test
+    void brokenDefinitionsAreReportedWithoutStoppingOthers() throws IOException {
+        String yaml = SWORD_YAML + String.join("\n",
+                "no_material:",
+                "  name: Broken",
+                "  type: weapon",
+                "  recipe: [AIR, AIR, AIR, AIR, STICK, AIR, AIR, AIR, AIR]",
+                "bad_recipe:",
+                "  name: Broken",
+                "  material: STICK",
+                "  type: weapon",
+                "  recipe: [AIR, NOT_A_MATERIAL, AIR, AIR, AIR, AIR, AIR, AIR, AIR]",
+                "short_recipe:",
+                "  name: Broken",
+                "  material: STICK",
+                "  type: weapon",
+                "  recipe: [AIR]",
+                "");
+        CrucialItemLoader.Result result = new CrucialItemLoader(plugin).load(List.of(write("items.yml", yaml)));
+
+        assertEquals(1, result.getItems().size());
+        assertTrue(result.getItems().containsKey("ruby_sword"));
+        assertEquals(3, result.getErrors().size());
+        assertTrue(result.getErrors().get("no_material").contains("missing material"));
+        assertTrue(result.getErrors().get("bad_recipe").contains("NOT_A_MATERIAL"));
+        assertTrue(result.getErrors().get("short_recipe").contains("9 entries"));
+    }
+
+    @Test
+    void unreadableFileIsReported() throws IOException {
+        File broken = write("broken.json", "{ not json");
+        CrucialItemLoader.Result result = new CrucialItemLoader(plugin).load(List.of(broken, write("items.yml", SWORD_YAML)));
+
+        assertTrue(result.getErrors().containsKey("broken.json"));
+        assertTrue(result.getItems().containsKey("ruby_sword"));
+    }
+
+    @Test
+    void duplicateKeysAcrossFilesAreRejected() throws IOException {
+        CrucialItemLoader.Result result = new CrucialItemLoader(plugin)
+                .load(List.of(write("a.yml", SWORD_YAML), write("b.yml", SWORD_YAML)));
+
+        assertEquals(1, result.getItems().size());
+        assertTrue(result.getErrors().containsKey("b.yml:ruby_sword"));
+    }
+
+    @Test
+    void manyDefinitionsLoadInOneBatch() throws IOException {
+        List<File> files = new ArrayList<>();
+        for (int f = 0; f < 4; f++) {
+            StringBuilder yaml = new StringBuilder();
+            for (int i = 0; i < 150; i++) {
+                yaml.append("item_").append(f).append('_').append(i).append(":\n")
+                        .append("  name: Item ").append(i).append('\n')
+                        .append("  material: PAPER\n")
+                        .append("  type: bulk\n")
+                        .append("  recipe: [AIR, AIR, AIR, AIR, PAPER, AIR, AIR, AIR, ").append(i % 2 == 0 ? "STICK" : "FEATHER").append("]\n");
+            }
+            files.add(write("pack" + f + ".yml", yaml.toString()));
+        }
+
+        CrucialItemLoader.Result result = new CrucialItemLoader(plugin).load(files);
+
+        assertTrue(result.isSuccessful(), () -> result.getErrors().toString());
+        assertEquals(600, result.getItems().size());
+        assertEquals(600, CrucialItem.getByType("bulk").size());
+    }
+
+    @Test
+    void loadAsyncRegistersOnMainThread() throws Exception {
+        CompletableFuture<CrucialItemLoader.Result> future =
+                new CrucialItemLoader(plugin).loadAsync(List.of(write("items.yml", SWORD_YAML)));
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!future.isDone() && System.currentTimeMillis() < deadline) {
+            server.getScheduler().performOneTick();
+            Thread.sleep(1);
+        }
+
+        assertTrue(future.isDone());
+        assertTrue(future.get().getItems().get("ruby_sword").isRegistered());
+    }
+
+    // --- Reload ---
+
+    @Test
+    void reloadOfUnchangedFileKeepsItemsAndPrototypes() throws IOException {
+        File file = write("items.yml", SWORD_YAML);
+        CrucialItemLoader loader = new CrucialItemLoader(plugin);
+        CrucialItem sword = loader.load(List.of(file)).getItems().get("ruby_sword");
+        ItemStack prototype = sword.getPrototype();
+
+        CrucialItemLoader.ReloadReport report = loader.reload(List.of(file));
+
+        assertEquals(List.of("ruby_sword"), report.getUnchanged());
+        assertTrue(report.getChanged().isEmpty());
+        assertSame(sword, loader.getLoadedItems().get("ruby_sword"));
+        assertSame(prototype, sword.getPrototype());
+        assertTrue(report.getParseNanos() > 0);
+        assertTrue(report.getDiffNanos() >= 0);
+        assertTrue(report.getApplyNanos() >= 0);
+    }
+
+    @Test
+    void flagChangeDoesNotTouchRecipe() throws IOException {
+        File file = write("items.yml", SWORD_YAML);
+        CrucialItemLoader loader = new CrucialItemLoader(plugin);
+        CrucialItem sword = loader.load(List.of(file)).getItems().get("ruby_sword");
+        ItemStack prototype = sword.getPrototype();
+
+        write("items.yml", SWORD_YAML.replace("usable: false", "usable: true"));
+        CrucialItemLoader.ReloadReport report = loader.reload(List.of(file));
+
+        assertEquals(List.of("ruby_sword"), report.getChanged());
+        assertTrue(report.getReloadedRecipes().isEmpty());
+        assertTrue(sword.isUsable);
+        assertSame(prototype, sword.getPrototype());
+    }
+
+    @Test
+    void nameChangeReloadsRecipeInPlace() throws IOException {
+        File file = write("items.yml", SWORD_YAML);
+        CrucialItemLoader loader = new CrucialItemLoader(plugin);
+        CrucialItem sword = loader.load(List.of(file)).getItems().get("ruby_sword");
+        UUID id = sword.getId();
+
+        write("items.yml", SWORD_YAML.replace("name: Ruby Sword", "name: Ruby Blade"));
+        CrucialItemLoader.ReloadReport report = loader.reload(List.of(file));
+
+        assertEquals(List.of("ruby_sword"), report.getReloadedRecipes());
+        assertSame(sword, loader.getLoadedItems().get("ruby_sword"));
+        assertEquals(id, sword.getId());
+        assertEquals("Ruby Blade", sword.getName());
+        assertNotNull(Bukkit.getRecipe(sword.getNamespacedKey()));
+    }
+
+    @Test
+    void typeChangeReplacesItem() throws IOException {
+        File file = write("items.yml", SWORD_YAML);
+        CrucialItemLoader loader = new CrucialItemLoader(plugin);
+        CrucialItem sword = loader.load(List.of(file)).getItems().get("ruby_sword");
+
+        write("items.yml", SWORD_YAML.replace("type: weapon", "type: relic"));
+        CrucialItemLoader.ReloadReport report = loader.reload(List.of(file));
+
+        assertEquals(List.of("ruby_sword"), report.getChanged());
+        assertFalse(sword.isRegistered());
+        CrucialItem relic = loader.getLoadedItems().get("ruby_sword");
+        assertEquals("relic", relic.getType());
+        assertTrue(relic.isRegistered());
+    }
+
+    @Test
+    void addedAndRemovedKeysAreApplied() throws IOException {
+        File file = write("items.yml", SWORD_YAML);
+        CrucialItemLoader loader = new CrucialItemLoader(plugin);
+        CrucialItem sword = loader.load(List.of(file)).getItems().get("ruby_sword");
+
+        write("items.yml", SWORD_YAML.replace("ruby_sword:", "ruby_axe:"));
+        CrucialItemLoader.ReloadReport report = loader.reload(List.of(file));
+
+        assertEquals(List.of("ruby_axe"), report.getAdded());
+        assertEquals(List.of("ruby_sword"), report.getRemoved());
+        assertFalse(sword.isRegistered());
+        assertTrue(loader.getLoadedItems().get("ruby_axe").isRegistered());
+        assertFalse(loader.getLoadedItems().containsKey("ruby_sword"));
+    }
+
+    @Test
+    void brokenDefinitionKeepsPreviousItem() throws IOException {
+        File file = write("items.yml", SWORD_YAML);
+        CrucialItemLoader loader = new CrucialItemLoader(plugin);
+        CrucialItem sword = loader.load(List.of(file)).getItems().get("ruby_sword");
+
+        write("items.yml", SWORD_YAML.replace("diamond_sword", "not_a_material"));
+        CrucialItemLoader.ReloadReport report = loader.reload(List.of(file));
+
+        assertTrue(report.getErrors().containsKey("ruby_sword"));
+        assertTrue(report.getRemoved().isEmpty());
+        assertTrue(sword.isRegistered());
+        assertEquals("DIAMOND_SWORD", sword.getMaterial());
+    }
+
+    @Test
+    void recipeThatCannotBeRegisteredKeepsPreviousItem() throws IOException {
+        File file = write("items.yml", SWORD_YAML);
+        CrucialItemLoader loader = new CrucialItemLoader(plugin);
+        CrucialItem sword = loader.load(List.of(file)).getItems().get("ruby_sword");
+        String[] recipe = sword.getRecipe();
+
+        // WATER is a material but not an item, so the definition parses but its recipe is rejected.
+        write("items.yml", SWORD_YAML.replace("name: Ruby Sword", "name: Ruby Blade")
+                .replace("AIR, STICK, AIR", "AIR, WATER, AIR"));
+        CrucialItemLoader.ReloadReport report = loader.reload(List.of(file));
+
+        assertTrue(report.getErrors().containsKey("ruby_sword"));
+        assertTrue(report.getReloadedRecipes().isEmpty());
+        assertSame(sword, loader.getLoadedItems().get("ruby_sword"));
+        assertTrue(sword.isRegistered());
+        assertEquals("Ruby Sword", sword.getName());
+        assertArrayEquals(recipe, sword.getRecipe());
+        assertNotNull(Bukkit.getRecipe(sword.getNamespacedKey()));
+    }
+
+    @Test
+    void unreadableFileKeepsItsItems() throws IOException {
+        File file = write("items.json", GEM_JSON);
+        CrucialItemLoader loader = new CrucialItemLoader(plugin);
+        CrucialItem ruby = loader.load(List.of(file)).getItems().get("ruby");
+        assertNotNull(ruby);
+
+        write("items.json", "{ not json");
+        CrucialItemLoader.ReloadReport report = loader.reload(List.of(file));
+
+        assertTrue(report.getErrors().containsKey("items.json"));
+        assertTrue(report.getRemoved().isEmpty());
+        assertTrue(ruby.isRegistered());
+    }
+
+    @Test
+    void listItemFilesFindsSupportedExtensions() throws IOException {
+        write("a.yml", "");
+        write("b.json", "{}");
+        write("c.yaml", "");
+        write("notes.txt", "");
+
+        List<File> files = CrucialItemLoader.listItemFiles(folder);
+        assertEquals(List.of("a.yml", "b.json", "c.yaml"), files.stream().map(File::getName).toList());
+        assertTrue(CrucialItemLoader.listItemFiles(new File(folder, "missing")).isEmpty());
+    }
+}
@@ -0,0 +1,354 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import io.github.chafficui.CrucialLib.Main;
+import io.github.chafficui.CrucialLib.exceptions.CrucialException;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrucialItemRegistryTest {
+
+    private ServerMock server;
+
+    @BeforeEach
+    void setUp() {
+        server = MockBukkit.mock();
+        MockBukkit.load(Main.class);
+        CrucialItem.CRUCIAL_ITEMS.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        CrucialItem.CRUCIAL_ITEMS.clear();
+        MockBukkit.unmock();
+    }
+
+    private static CrucialItem sword(String name) {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        return new CrucialItem(name, Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+    }
+
+    // --- Index consistency ---
+
+    @Test
+    void registerIndexesById() throws CrucialException {
+        CrucialItem item = sword("Sword");
+        item.register();
+
+        assertSame(item, CrucialItem.getById(item.getId()));
+    }
+
+    @Test
+    void unregisterRemovesFromIndex() throws CrucialException {
+        CrucialItem item = sword("Sword");
+        item.register();
+        item.unregister();
+
+        assertNull(CrucialItem.getById(item.getId()));
+    }
+
+    @Test
+    void deleteRemovesFromIndex() throws CrucialException {
+        CrucialItem item = sword("Sword");
+        item.register();
+        item.delete();
+
+        assertNull(CrucialItem.getById(item.getId()));
+    }
+
+    @Test
+    void clearingGlobalSetClearsIndex() throws CrucialException {
+        CrucialItem item = sword("Sword");
+        item.register();
+        CrucialItem.CRUCIAL_ITEMS.clear();
+
+        assertNull(CrucialItem.getById(item.getId()));
+        assertTrue(CrucialItem.CRUCIAL_ITEMS.isEmpty());
+    }
+
+    @Test
+    void removingThroughIteratorClearsIndex() throws CrucialException {
+        CrucialItem item = sword("Sword");
+        item.register();
+        Iterator<CrucialItem> iterator = CrucialItem.CRUCIAL_ITEMS.iterator();
+        iterator.next();
+        iterator.remove();
+
+        assertNull(CrucialItem.getById(item.getId()));
+    }
+
+    @Test
+    void getByIdWithNullReturnsNull() {
+        assertNull(CrucialItem.getById(null));
+    }
+
+    // --- Material prefilter ---
+
+    @Test
+    void registeredMaterialIsCandidate() throws CrucialException {
+        CrucialItem item = sword("Sword");
+        assertFalse(CrucialItemRegistry.isCandidate(Material.DIAMOND_SWORD));
+        item.register();
+
+        assertTrue(CrucialItemRegistry.isCandidate(Material.DIAMOND_SWORD));
+        assertFalse(CrucialItemRegistry.isCandidate(Material.DIRT));
+    }
+
+    @Test
+    void materialStaysCandidateWhileAnyItemUsesIt() throws CrucialException {
+        CrucialItem first = sword("First");
+        CrucialItem second = sword("Second");
+        first.register();
+        second.register();
+        first.unregister();
+
+        assertTrue(CrucialItemRegistry.isCandidate(Material.DIAMOND_SWORD));
+        second.unregister();
+        assertFalse(CrucialItemRegistry.isCandidate(Material.DIAMOND_SWORD));
+    }
+
+    @Test
+    void setMaterialMovesCandidate() throws CrucialException {
+        CrucialItem item = sword("Sword");
+        item.register();
+        item.setMaterial("IRON_SWORD");
+
+        assertFalse(CrucialItemRegistry.isCandidate(Material.DIAMOND_SWORD));
+        assertTrue(CrucialItemRegistry.isCandidate(Material.IRON_SWORD));
+    }
+
+    @Test
+    void getByStackRejectsNonCandidateMaterial() throws CrucialException {
+        CrucialItem item = sword("Sword");
+        item.register();
+        ItemStack foreign = CrucialItem.applyId(new ItemStack(Material.DIRT), item.getId());
+
+        assertEquals(item.getId(), CrucialItem.getId(foreign));
+        assertNull(CrucialItem.getByStack(foreign));
+    }
+
+    @Test
+    void clearResetsCandidates() throws CrucialException {
+        sword("Sword").register();
+        CrucialItem.CRUCIAL_ITEMS.clear();
+
+        assertFalse(CrucialItemRegistry.isCandidate(Material.DIAMOND_SWORD));
+    }
+
+    @Test
+    void isCandidateHandlesNull() {
+        assertFalse(CrucialItemRegistry.isCandidate(null));
+    }
+
+    // --- Type and material queries ---
+
+    @Test
+    void getByTypeReturnsOnlyMatchingItems() throws CrucialException {
+        CrucialItem sword = sword("Sword");
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "IRON_INGOT", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem axe = new CrucialItem("Axe", Material.IRON_AXE, List.of(), recipe, "tool", true, true, false);
+        sword.register();
+        axe.register();
+
+        assertEquals(Set.of(sword), CrucialItem.getByType("weapon"));
+        assertEquals(Set.of(axe), CrucialItem.getByType("tool"));
+        assertTrue(CrucialItem.getByType("armor").isEmpty());
+    }
+
+    @Test
+    void getByTypeIsCaseInsensitive() throws CrucialException {
+        CrucialItem sword = sword("Sword");
+        sword.register();
+
+        assertTrue(CrucialItem.getByType("WEAPON").contains(sword));
+    }
+
+    @Test
+    void getByTypeViewFollowsRegistration() throws CrucialException {
+        Set<CrucialItem> weapons = CrucialItem.getByType("weapon");
+        CrucialItem sword = sword("Sword");
+        sword.register();
+        assertTrue(weapons.contains(sword));
+
+        sword.unregister();
+        assertFalse(weapons.contains(sword));
+    }
+
+    @Test
+    void getByTypeViewIsReadOnly() {
+        Set<CrucialItem> weapons = CrucialItem.getByType("weapon");
+        assertThrows(UnsupportedOperationException.class, () -> weapons.add(sword("Sword")));
+    }
+
+    @Test
+    void getByMaterialFollowsSetMaterial() throws CrucialException {
+        CrucialItem sword = sword("Sword");
+        sword.register();
+        assertTrue(CrucialItem.getByMaterial(Material.DIAMOND_SWORD).contains(sword));
+
+        sword.setMaterial("IRON_SWORD");
+        assertFalse(CrucialItem.getByMaterial(Material.DIAMOND_SWORD).contains(sword));
+        assertTrue(CrucialItem.getByMaterial(Material.IRON_SWORD).contains(sword));
+    }
+
+    @Test
+    void queriesWithNullReturnEmpty() {
+        assertTrue(CrucialItem.getByType(null).isEmpty());
+        assertTrue(CrucialItem.getByMaterial(null).isEmpty());
+    }
+
+    @Test
+    void queriesDoNotGrowTheIndex() throws CrucialException {
+        CrucialItem.getByType("armor").size();
+        CrucialItem.getByMaterial(Material.DIRT).contains(null);
+        assertEquals(0, CrucialItemRegistry.bucketCount());
+
+        CrucialItem sword = sword("Sword");
+        sword.register();
+        assertEquals(2, CrucialItemRegistry.bucketCount());
+
+        sword.unregister();
+        assertEquals(0, CrucialItemRegistry.bucketCount());
+    }
+
+    @Test
+    void clearEmptiesQueryViews() throws CrucialException {
+        Set<CrucialItem> weapons = CrucialItem.getByType("weapon");
+        sword("Sword").register();
+        CrucialItem.CRUCIAL_ITEMS.clear();
+
+        assertTrue(weapons.isEmpty());
+        assertTrue(CrucialItem.getByMaterial(Material.DIAMOND_SWORD).isEmpty());
+    }
+
+    // --- equals / hashCode ---
+
+    @Test
+    void equalItemsShareHashCode() {
+        CrucialItem item = sword("Sword");
+        assertEquals(item, item);
+        assertEquals(item.hashCode(), item.hashCode());
+        assertEquals(item.getId().hashCode(), item.hashCode());
+    }
+
+    @Test
+    void setContainsUsesIdEquality() throws CrucialException {
+        CrucialItem item = sword("Sword");
+        item.register();
+
+        assertTrue(CrucialItem.CRUCIAL_ITEMS.contains(item));
+        assertFalse(CrucialItem.CRUCIAL_ITEMS.contains(sword("Sword")));
+    }
+
+    // --- Concurrent readers ---
+
+    @Test
+    void readersOnOtherThreadsNeverThrowWhileRegistryChanges() throws Exception {
+        List<CrucialItem> items = new ArrayList<>();
+        List<ItemStack> stacks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            CrucialItem item = sword("Sword " + i);
+            CrucialItem.CRUCIAL_ITEMS.add(item);
+            items.add(item);
+            stacks.add(CrucialItem.applyId(new ItemStack(Material.DIAMOND_SWORD), item.getId()));
+        }
+
+        int readerCount = 4;
+        AtomicBoolean running = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch started = new CountDownLatch(readerCount);
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < readerCount; r++) {
+            List<ItemStack> ownStacks = new ArrayList<>();
+            stacks.forEach(stack -> ownStacks.add(stack.clone()));
+            Thread reader = new Thread(() -> {
+                started.countDown();
+                int i = 0;
+                while (running.get()) {
+                    try {
+                        CrucialItem.getById(items.get(i % items.size()).getId());
+                        CrucialItem.getByStack(ownStacks.get(i % ownStacks.size()));
+                        for (CrucialItem item : CrucialItem.CRUCIAL_ITEMS) {
+                            item.getId();
+                        }
+                        for (CrucialItem item : CrucialItem.getByType("weapon")) {
+                            item.getName();
+                        }
+                        CrucialItem.getByMaterial(Material.IRON_SWORD).size();
+                        i++;
+                    } catch (Throwable t) {
+                        errors.add(t);
+                        return;
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        started.await();
+        for (int round = 0; round < 2_000; round++) {
+            CrucialItem item = items.get(round % items.size());
+            CrucialItem.CRUCIAL_ITEMS.remove(item);
+            CrucialItem.CRUCIAL_ITEMS.add(item);
+            item.setMaterial(round % 2 == 0 ? "IRON_SWORD" : "DIAMOND_SWORD");
+            CrucialItem.CRUCIAL_ITEMS.add(new CrucialItem("weapon"));
+            if (round % 500 == 0) {
+                CrucialItem.CRUCIAL_ITEMS.removeIf(candidate -> !items.contains(candidate));
+            }
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join(10_000);
+        }
+
+        assertTrue(errors.isEmpty(), () -> "Reader failed: " + errors.peek());
+    }
+
+    // --- Lookup scaling ---
+
+    @Test
+    void lookupCostStaysFlatFrom10To10000Items() {
+        long small = measureLookup(10);
+        CrucialItem.CRUCIAL_ITEMS.clear();
+        long large = measureLookup(10_000);
+
+        // A linear scan would be ~1000x slower at 10,000 items; allow generous noise for CI machines.
+        assertTrue(large < small * 10 + 5_000_000L,
+                "Lookup cost grew from " + small + "ns to " + large + "ns between 10 and 10,000 items");
+    }
+
+    private long measureLookup(int itemCount) {
+        List<UUID> ids = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            CrucialItem item = new CrucialItem("bench");
+            CrucialItem.CRUCIAL_ITEMS.add(item);
+            ids.add(item.getId());
+        }
+        int lookups = 200_000;
+        // warm up
+        for (int i = 0; i < lookups; i++) {
+            assertNotNull(CrucialItem.getById(ids.get(i % itemCount)));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            CrucialItem.getById(ids.get(i % itemCount));
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -2,8 +2,14 @@ package io.github.chafficui.CrucialLib.Utils.customItems;
 
 import io.github.chafficui.CrucialLib.Main;
 import io.github.chafficui.CrucialLib.exceptions.CrucialException;
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.inventory.FurnaceRecipe;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.ShapelessRecipe;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,7 +18,9 @@ import org.mockbukkit.mockbukkit.ServerMock;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -243,6 +251,68 @@ class CrucialItemTest {
         assertTrue(axe.isRegistered());
     }
 
+    // --- Bulk registration ---
+
+    @Test
+    void registerAllRegistersEveryItem() {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem sword = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+        CrucialItem axe = new CrucialItem("Axe", Material.IRON_AXE, List.of(), recipe, "tool", true, true, false);
+
+        Map<CrucialItem, CrucialException> failures = CrucialItem.registerAll(List.of(sword, axe));
+
+        assertTrue(failures.isEmpty());
+        assertTrue(sword.isRegistered());
+        assertTrue(axe.isRegistered());
+        assertNotNull(Bukkit.getRecipe(sword.getNamespacedKey()));
+        assertNotNull(Bukkit.getRecipe(axe.getNamespacedKey()));
+        assertSame(axe, CrucialItem.getByStack(axe.getItemStack()));
+    }
+
+    @Test
+    void registerAllReportsInvalidItemsWithoutAbortingBatch() {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        String[] badRecipe = new String[]{"AIR", "AIR", "AIR", "AIR", "NOT_A_MATERIAL", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem good = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+        CrucialItem bad = new CrucialItem("Broken", Material.STONE, List.of(), badRecipe, "weapon", true, true, false);
+        CrucialItem noMaterial = new CrucialItem("tool").setName("Nothing").setRecipe(recipe);
+
+        Map<CrucialItem, CrucialException> failures = CrucialItem.registerAll(List.of(bad, good, noMaterial));
+
+        assertEquals(2, failures.size());
+        assertTrue(failures.get(bad).getMessage().contains("002"));
+        assertTrue(failures.containsKey(noMaterial));
+        assertTrue(good.isRegistered());
+        assertFalse(bad.isRegistered());
+        assertFalse(CrucialItem.CRUCIAL_ITEMS.contains(bad));
+    }
+
+    @Test
+    void registerAllRejectsDuplicateIds() {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem sword = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+        CrucialItem.CRUCIAL_ITEMS.add(sword);
+
+        Map<CrucialItem, CrucialException> failures = CrucialItem.registerAll(List.of(sword));
+
+        assertTrue(failures.get(sword).getMessage().contains("007"));
+    }
+
+    @Test
+    void registerAllSkipsAlreadyRegisteredItems() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem sword = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+        sword.register();
+
+        assertTrue(CrucialItem.registerAll(List.of(sword)).isEmpty());
+        assertEquals(1, CrucialItem.CRUCIAL_ITEMS.size());
+    }
+
+    @Test
+    void registerAllWithEmptyCollection() {
+        assertTrue(CrucialItem.registerAll(List.of()).isEmpty());
+    }
+
     // --- ItemStack and ID extraction tests ---
 
     @Test
@@ -424,6 +494,164 @@ class CrucialItemTest {
                 "Multiple getItemStack calls should produce stacks with the same ID");
     }
 
+    // --- Prototype stack cache ---
+
+    @Test
+    void getItemStackReturnsIndependentClones() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+        item.register();
+
+        ItemStack first = item.getItemStack();
+        first.setAmount(5);
+        ItemStack second = item.getItemStack();
+
+        assertNotSame(first, second);
+        assertEquals(1, second.getAmount());
+        assertTrue(first.isSimilar(second));
+    }
+
+    @Test
+    void setNameRebuildsItemStack() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+        item.register();
+        item.getItemStack();
+
+        item.setName("Renamed");
+        assertEquals("Renamed", item.getItemStack().getItemMeta().getDisplayName());
+    }
+
+    @Test
+    void setLoreRebuildsItemStack() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of("Old"), recipe, "weapon", true, true, false);
+        item.register();
+        item.getItemStack();
+
+        item.setLore(List.of("New"));
+        assertEquals(List.of("New"), item.getItemStack().getItemMeta().getLore());
+    }
+
+    @Test
+    void setMaterialRebuildsItemStack() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+        item.register();
+        item.getItemStack();
+
+        item.setMaterial("IRON_SWORD");
+        ItemStack stack = item.getItemStack();
+        assertEquals(Material.IRON_SWORD, stack.getType());
+        assertSame(item, CrucialItem.getByStack(stack));
+    }
+
+    @Test
+    void reloadKeepsItemStackIdentifiable() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+        item.register();
+        item.setName("Super Sword");
+        item.reload();
+
+        ItemStack stack = item.getItemStack();
+        assertEquals("Super Sword", stack.getItemMeta().getDisplayName());
+        assertSame(item, CrucialItem.getByStack(stack));
+    }
+
+    // --- Binary id tag and legacy migration ---
+
+    @Test
+    void getItemStackStoresBinaryIdTag() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+        item.register();
+
+        PersistentDataContainer container = item.getItemStack().getItemMeta().getPersistentDataContainer();
+        long[] bits = container.get(CrucialItem.getUidKey(), PersistentDataType.LONG_ARRAY);
+        assertNotNull(bits);
+        assertEquals(item.getId(), new UUID(bits[0], bits[1]));
+        assertFalse(container.has(CrucialItem.getIdKey(), PersistentDataType.STRING));
+    }
+
+    @Test
+    void legacyStringTagIsStillRecognised() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+        item.register();
+
+        ItemStack legacy = legacyStack(Material.DIAMOND_SWORD, item.getId());
+        assertEquals(item.getId(), CrucialItem.getId(legacy));
+        assertSame(item, CrucialItem.getByStack(legacy));
+    }
+
+    @Test
+    void getByStackMigratesLegacyStringTag() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+        item.register();
+
+        ItemStack legacy = legacyStack(Material.DIAMOND_SWORD, item.getId());
+        CrucialItem.getByStack(legacy);
+
+        PersistentDataContainer container = legacy.getItemMeta().getPersistentDataContainer();
+        assertFalse(container.has(CrucialItem.getIdKey(), PersistentDataType.STRING));
+        assertTrue(container.has(CrucialItem.getUidKey(), PersistentDataType.LONG_ARRAY));
+        assertSame(item, CrucialItem.getByStack(legacy));
+    }
+
+    @Test
+    void getByStackDoesNotMigrateOffMainThread() throws Exception {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+        item.register();
+
+        ItemStack legacy = legacyStack(Material.DIAMOND_SWORD, item.getId());
+        CrucialItem found = CompletableFuture.supplyAsync(() -> CrucialItem.getByStack(legacy)).get();
+
+        assertSame(item, found);
+        assertTrue(legacy.getItemMeta().getPersistentDataContainer().has(CrucialItem.getIdKey(), PersistentDataType.STRING));
+    }
+
+    @Test
+    void findByStackNeverMigrates() throws CrucialException {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+        item.register();
+
+        ItemStack legacy = legacyStack(Material.DIAMOND_SWORD, item.getId());
+
+        assertSame(item, CrucialItem.findByStack(legacy));
+        assertTrue(legacy.getItemMeta().getPersistentDataContainer().has(CrucialItem.getIdKey(), PersistentDataType.STRING));
+    }
+
+    @Test
+    void legacyTagOfUnregisteredItemIsLeftUntouched() {
+        UUID id = UUID.randomUUID();
+        ItemStack legacy = legacyStack(Material.DIAMOND_SWORD, id);
+
+        assertNull(CrucialItem.getByStack(legacy));
+        assertTrue(legacy.getItemMeta().getPersistentDataContainer().has(CrucialItem.getIdKey(), PersistentDataType.STRING));
+    }
+
+    @Test
+    void malformedLegacyTagIsIgnored() {
+        ItemStack stack = new ItemStack(Material.DIAMOND_SWORD);
+        ItemMeta meta = stack.getItemMeta();
+        meta.getPersistentDataContainer().set(CrucialItem.getIdKey(), PersistentDataType.STRING, "not-a-uuid");
+        stack.setItemMeta(meta);
+
+        assertNull(CrucialItem.getId(stack));
+    }
+
+    private static ItemStack legacyStack(Material material, UUID id) {
+        ItemStack stack = new ItemStack(material);
+        ItemMeta meta = stack.getItemMeta();
+        meta.getPersistentDataContainer().set(CrucialItem.getIdKey(), PersistentDataType.STRING, id.toString());
+        stack.setItemMeta(meta);
+        return stack;
+    }
+
     // --- Equality tests ---
 
     @Test
@@ -438,4 +666,47 @@ class CrucialItemTest {
         CrucialItem b = new CrucialItem("weapon");
         assertNotEquals(a, b);
     }
+
+    // --- Recipe type tests ---
+
+    @Test
+    void shapelessRecipeIsRegisteredOnce() throws CrucialException {
+        CrucialItem item = new CrucialItem("Dust", Material.GLOWSTONE_DUST, List.of(),
+                new String[9], "material", true, true, false);
+        item.setRecipe(CrucialRecipe.shapeless("REDSTONE", "GUNPOWDER"));
+        item.register();
+
+        assertInstanceOf(ShapelessRecipe.class, Bukkit.getRecipe(item.getNamespacedKey()));
+        assertNull(item.getRecipe());
+        assertEquals(CrucialRecipe.shapeless("GUNPOWDER", "REDSTONE"), item.getCompiledRecipe());
+    }
+
+    @Test
+    void furnaceRecipeIsRegistered() throws CrucialException {
+        CrucialItem item = new CrucialItem("Ingot", Material.IRON_INGOT, List.of(),
+                new String[9], "material", true, true, false);
+        item.setRecipe(CrucialRecipe.furnace("RAW_IRON", 0.5f, 100));
+        item.register();
+
+        assertInstanceOf(FurnaceRecipe.class, Bukkit.getRecipe(item.getNamespacedKey()));
+    }
+
+    @Test
+    void settingGridClearsCompiledRecipe() throws CrucialException {
+        String[] grid = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Gem", Material.DIAMOND, List.of(), grid, "material", true, true, false);
+        item.setRecipe(CrucialRecipe.smoking("BEEF", 0.35f, 100));
+        item.setRecipe(grid);
+
+        assertEquals(CrucialRecipe.Type.SHAPED, item.getCompiledRecipe().getType());
+    }
+
+    @Test
+    void compiledShapedRecipeSetsGrid() throws CrucialException {
+        String[] grid = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        CrucialItem item = new CrucialItem("Gem", Material.DIAMOND, List.of(), new String[9], "material", true, true, false);
+        item.setRecipe(CrucialRecipe.shaped(grid));
+
+        assertArrayEquals(grid, item.getRecipe());
+    }
 }
@@ -0,0 +1,127 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import io.github.chafficui.CrucialLib.Main;
+import io.github.chafficui.CrucialLib.exceptions.CrucialException;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.BlastingRecipe;
+import org.bukkit.inventory.CookingRecipe;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.ShapedRecipe;
+import org.bukkit.inventory.ShapelessRecipe;
+import org.bukkit.inventory.SmithingTransformRecipe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrucialRecipeTest {
+
+    private Main plugin;
+
+    @BeforeEach
+    void setUp() {
+        MockBukkit.mock();
+        plugin = MockBukkit.load(Main.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    void identicalGridsShareOneCompilation() throws CrucialException {
+        CrucialRecipe first = CrucialRecipe.shaped("AIR", "AIR", "AIR", "AIR", "EMERALD", "AIR", "AIR", "AIR", "AIR");
+        int size = CrucialRecipe.cacheSize();
+        CrucialRecipe second = CrucialRecipe.shaped("AIR", "AIR", "AIR", "AIR", "EMERALD", "AIR", "AIR", "AIR", "AIR");
+
+        assertSame(first, second);
+        assertEquals(size, CrucialRecipe.cacheSize());
+    }
+
+    @Test
+    void ingredientsAreResolved() throws CrucialException {
+        CrucialRecipe recipe = CrucialRecipe.shaped("DIAMOND", "AIR", "AIR", "AIR", "STICK", "AIR", "AIR", "AIR", "AIR");
+
+        assertEquals(Material.DIAMOND, recipe.getIngredient(0));
+        assertEquals(Material.STICK, recipe.getIngredient(4));
+        assertEquals(Material.AIR, recipe.getIngredient(8));
+        assertEquals("STICK", recipe.toGrid()[4]);
+    }
+
+    @Test
+    void wrongSizeIsRejected() {
+        CrucialException e = assertThrows(CrucialException.class, () -> CrucialRecipe.shaped("AIR", "DIAMOND"));
+        assertTrue(e.getMessage().contains("002"));
+    }
+
+    @Test
+    void unknownMaterialIsRejected() {
+        assertThrows(CrucialException.class,
+                () -> CrucialRecipe.shaped("AIR", "AIR", "AIR", "AIR", "NOT_A_MATERIAL", "AIR", "AIR", "AIR", "AIR"));
+    }
+
+    @Test
+    void toRecipeLeavesAirSlotsEmpty() throws CrucialException {
+        CrucialRecipe recipe = CrucialRecipe.shaped("AIR", "AIR", "AIR", "AIR", "GOLD_INGOT", "AIR", "AIR", "AIR", "AIR");
+        ShapedRecipe shaped = (ShapedRecipe) recipe.toRecipe(new NamespacedKey(plugin, "gold"), new ItemStack(Material.GOLD_BLOCK));
+
+        assertEquals(1, shaped.getIngredientMap().values().stream().filter(i -> i != null).count());
+        assertEquals(Material.GOLD_INGOT, shaped.getIngredientMap().get('5').getType());
+        assertEquals(Material.GOLD_BLOCK, shaped.getResult().getType());
+    }
+
+    @Test
+    void shapelessIgnoresIngredientOrder() throws CrucialException {
+        assertSame(CrucialRecipe.shapeless("REDSTONE", "STICK", "REDSTONE"),
+                CrucialRecipe.shapeless("STICK", "REDSTONE", "REDSTONE"));
+    }
+
+    @Test
+    void shapelessRejectsAirAndEmpty() {
+        assertThrows(CrucialException.class, () -> CrucialRecipe.shapeless("AIR", "STICK"));
+        assertThrows(CrucialException.class, CrucialRecipe::shapeless);
+    }
+
+    @Test
+    void shapelessToRecipeAddsEveryIngredient() throws CrucialException {
+        ShapelessRecipe shapeless = (ShapelessRecipe) CrucialRecipe.shapeless("REDSTONE", "REDSTONE", "STICK")
+                .toRecipe(new NamespacedKey(plugin, "dust"), new ItemStack(Material.GLOWSTONE_DUST));
+
+        assertEquals(3, shapeless.getChoiceList().size());
+    }
+
+    @Test
+    void cookingRecipesKeepTimings() throws CrucialException {
+        CrucialRecipe furnace = CrucialRecipe.furnace("RAW_GOLD", 0.7f, 200);
+        CrucialRecipe blasting = CrucialRecipe.blasting("RAW_GOLD", 0.7f, 100);
+
+        assertNotSame(furnace, blasting);
+        assertEquals(CrucialRecipe.Type.BLASTING, blasting.getType());
+        CookingRecipe<?> cooking = (CookingRecipe<?>) blasting.toRecipe(new NamespacedKey(plugin, "gold"), new ItemStack(Material.GOLD_INGOT));
+        assertInstanceOf(BlastingRecipe.class, cooking);
+        assertEquals(Material.RAW_GOLD, cooking.getInput().getType());
+        assertEquals(100, cooking.getCookingTime());
+        assertEquals(0.7f, cooking.getExperience());
+    }
+
+    @Test
+    void cookingRejectsInvalidTiming() {
+        assertThrows(CrucialException.class, () -> CrucialRecipe.campfire("BEEF", 0.35f, 0));
+        assertThrows(CrucialException.class, () -> CrucialRecipe.smoking("BEEF", -1f, 100));
+    }
+
+    @Test
+    void smithingRecipeHasThreeChoices() throws CrucialException {
+        CrucialRecipe recipe = CrucialRecipe.smithing("NETHERITE_UPGRADE_SMITHING_TEMPLATE", "DIAMOND_SWORD", "NETHERITE_INGOT");
+        SmithingTransformRecipe smithing = (SmithingTransformRecipe) recipe.toRecipe(
+                new NamespacedKey(plugin, "upgrade"), new ItemStack(Material.NETHERITE_SWORD));
+
+        assertEquals(3, recipe.getIngredientCount());
+        assertTrue(smithing.getBase().test(new ItemStack(Material.DIAMOND_SWORD)));
+        assertTrue(smithing.getAddition().test(new ItemStack(Material.NETHERITE_INGOT)));
+    }
+}
@@ -0,0 +1,180 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import io.github.chafficui.CrucialLib.Main;
+import io.github.chafficui.CrucialLib.exceptions.CrucialException;
+import org.bukkit.Bukkit;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.SkullMeta;
+import org.bukkit.profile.PlayerProfile;
+import org.bukkit.profile.PlayerTextures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeadTextureCacheTest {
+
+    private static final String[] RECIPE = {"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+    private static final String SKIN = "http://textures.minecraft.net/texture/0123456789abcdef";
+
+    @TempDir
+    File folder;
+
+    private ServerMock server;
+
+    @BeforeEach
+    void setUp() {
+        server = MockBukkit.mock();
+        MockBukkit.load(Main.class);
+        CrucialItem.CRUCIAL_ITEMS.clear();
+        HeadTextureCache.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        CrucialItem.CRUCIAL_ITEMS.clear();
+        HeadTextureCache.clear();
+        HeadTextureCache.setResolver(null);
+        MockBukkit.unmock();
+    }
+
+    private static PlayerProfile skinned(UUID owner) throws Exception {
+        PlayerProfile profile = Bukkit.createPlayerProfile(owner);
+        PlayerTextures textures = profile.getTextures();
+        textures.setSkin(URI.create(SKIN).toURL());
+        profile.setTextures(textures);
+        return profile;
+    }
+
+    private static URL skinOf(ItemStack stack) {
+        PlayerProfile profile = ((SkullMeta) stack.getItemMeta()).getOwnerProfile();
+        return profile == null ? null : profile.getTextures().getSkin();
+    }
+
+    @Test
+    void headIsPlaceholderUntilResolved() throws Exception {
+        UUID owner = UUID.randomUUID();
+        CompletableFuture<PlayerProfile> lookup = new CompletableFuture<>();
+        HeadTextureCache.setResolver(id -> lookup);
+        CrucialHead head = new CrucialHead("Trophy", owner, List.of(), RECIPE, "trophy", true, true, false);
+        head.register();
+
+        assertNull(skinOf(head.getItemStack()));
+        assertFalse(HeadTextureCache.isResolved(owner));
+
+        lookup.complete(skinned(owner));
+
+        assertTrue(HeadTextureCache.isResolved(owner));
+        assertEquals(SKIN, skinOf(head.getItemStack()).toString());
+        assertNotNull(Bukkit.getRecipe(head.getNamespacedKey()));
+        assertSame(head, CrucialItem.getByStack(head.getItemStack()));
+    }
+
+    @Test
+    void resolvedHeadRecipesAreReloadedTogetherOnNextTick() throws Exception {
+        UUID owner = UUID.randomUUID();
+        CompletableFuture<PlayerProfile> lookup = new CompletableFuture<>();
+        HeadTextureCache.setResolver(id -> lookup);
+        CrucialHead first = new CrucialHead("Trophy", owner, List.of(), RECIPE, "trophy", true, true, false);
+        CrucialHead second = new CrucialHead("Statue", owner, List.of(), RECIPE, "trophy", true, true, false);
+        first.register();
+        second.register();
+
+        lookup.complete(skinned(owner));
+        assertNull(skinOf(Bukkit.getRecipe(first.getNamespacedKey()).getResult()));
+
+        server.getScheduler().performOneTick();
+
+        assertEquals(SKIN, skinOf(Bukkit.getRecipe(first.getNamespacedKey()).getResult()).toString());
+        assertEquals(SKIN, skinOf(Bukkit.getRecipe(second.getNamespacedKey()).getResult()).toString());
+    }
+
+    @Test
+    void concurrentLookupsAreShared() {
+        AtomicInteger lookups = new AtomicInteger();
+        CompletableFuture<PlayerProfile> lookup = new CompletableFuture<>();
+        HeadTextureCache.setResolver(id -> {
+            lookups.incrementAndGet();
+            return lookup;
+        });
+        UUID owner = UUID.randomUUID();
+
+        assertSame(HeadTextureCache.resolve(owner), HeadTextureCache.resolve(owner));
+        assertNull(HeadTextureCache.getProfile(owner));
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void failedLookupKeepsPlaceholder() throws CrucialException {
+        UUID owner = UUID.randomUUID();
+        HeadTextureCache.setResolver(id -> CompletableFuture.failedFuture(new IllegalStateException("offline")));
+        CrucialHead head = new CrucialHead("Trophy", owner, List.of(), RECIPE, "trophy", true, true, false);
+        head.register();
+
+        assertFalse(HeadTextureCache.isResolved(owner));
+        assertNull(skinOf(head.getItemStack()));
+    }
+
+    @Test
+    void failedLookupIsRetried() throws Exception {
+        UUID owner = UUID.randomUUID();
+        PlayerProfile profile = skinned(owner);
+        AtomicInteger lookups = new AtomicInteger();
+        HeadTextureCache.setResolver(id -> lookups.incrementAndGet() == 1
+                ? CompletableFuture.failedFuture(new IllegalStateException("offline"))
+                : CompletableFuture.completedFuture(profile));
+        CrucialHead head = new CrucialHead("Trophy", owner, List.of(), RECIPE, "trophy", true, true, false);
+        head.register();
+
+        assertNull(skinOf(head.getItemStack()));
+        assertEquals(1, lookups.get());
+
+        server.getScheduler().performTicks(CrucialHead.RETRY_DELAY_TICKS);
+
+        assertEquals(2, lookups.get());
+        assertEquals(SKIN, skinOf(head.getItemStack()).toString());
+        server.getScheduler().performOneTick();
+        assertEquals(SKIN, skinOf(Bukkit.getRecipe(head.getNamespacedKey()).getResult()).toString());
+    }
+
+    @Test
+    void skinsSurviveSaveAndLoad() throws Exception {
+        UUID owner = UUID.randomUUID();
+        PlayerProfile profile = skinned(owner);
+        HeadTextureCache.setResolver(id -> CompletableFuture.completedFuture(profile));
+        HeadTextureCache.resolve(owner);
+        File file = new File(folder, "heads.yml");
+        HeadTextureCache.save(file);
+
+        HeadTextureCache.clear();
+        AtomicInteger lookups = new AtomicInteger();
+        HeadTextureCache.setResolver(id -> {
+            lookups.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        HeadTextureCache.load(file);
+
+        assertEquals(SKIN, HeadTextureCache.getProfile(owner).getTextures().getSkin().toString());
+        assertEquals(0, lookups.get());
+    }
+
+    @Test
+    void loadingMissingFileIsNoOp() throws IOException {
+        HeadTextureCache.load(new File(folder, "missing.yml"));
+        HeadTextureCache.save(new File(folder, "untouched.yml"));
+        assertFalse(new File(folder, "untouched.yml").exists());
+    }
+}
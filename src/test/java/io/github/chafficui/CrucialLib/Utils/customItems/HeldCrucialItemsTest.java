@@ -0,0 +1,132 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import io.github.chafficui.CrucialLib.Main;
+import io.github.chafficui.CrucialLib.exceptions.CrucialException;
+import org.bukkit.Material;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeldCrucialItemsTest {
+
+    private ServerMock server;
+    private PlayerMock player;
+
+    @BeforeEach
+    void setUp() {
+        server = MockBukkit.mock();
+        MockBukkit.load(Main.class);
+        CrucialItem.CRUCIAL_ITEMS.clear();
+        HeldCrucialItems.clear();
+        player = server.addPlayer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        HeldCrucialItems.clear();
+        CrucialItem.CRUCIAL_ITEMS.clear();
+        MockBukkit.unmock();
+    }
+
+    private static CrucialItem sword(String name) {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        return new CrucialItem(name, Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+    }
+
+    @Test
+    void resolvesMainHandAndOffHand() throws CrucialException {
+        CrucialItem main = sword("Main");
+        CrucialItem off = sword("Off");
+        main.register();
+        off.register();
+        player.getInventory().setItemInMainHand(main.getItemStack());
+        player.getInventory().setItemInOffHand(off.getItemStack());
+
+        assertSame(main, HeldCrucialItems.getMainHand(player));
+        assertSame(off, HeldCrucialItems.getOffHand(player));
+    }
+
+    @Test
+    void emptyOrPlainHandResolvesToNull() {
+        assertNull(HeldCrucialItems.getMainHand(player));
+        player.getInventory().setItemInMainHand(new ItemStack(Material.DIRT));
+        assertNull(HeldCrucialItems.getMainHand(player));
+    }
+
+    @Test
+    void nullHandResolvesToNull() {
+        assertNull(HeldCrucialItems.get(player, null));
+        assertNull(HeldCrucialItems.get(null, EquipmentSlot.HAND));
+    }
+
+    @Test
+    void sameMaterialIsServedFromCacheUntilInvalidated() throws CrucialException {
+        CrucialItem first = sword("First");
+        CrucialItem second = sword("Second");
+        first.register();
+        second.register();
+        player.getInventory().setItemInMainHand(first.getItemStack());
+        assertSame(first, HeldCrucialItems.getMainHand(player));
+
+        player.getInventory().setItemInMainHand(second.getItemStack());
+        assertSame(first, HeldCrucialItems.getMainHand(player), "Same material should hit the cache");
+
+        HeldCrucialItems.invalidate(player);
+        assertSame(second, HeldCrucialItems.getMainHand(player));
+    }
+
+    @Test
+    void materialChangeResolvesAgain() throws CrucialException {
+        CrucialItem item = sword("Sword");
+        item.register();
+        player.getInventory().setItemInMainHand(item.getItemStack());
+        assertSame(item, HeldCrucialItems.getMainHand(player));
+
+        player.getInventory().setItemInMainHand(new ItemStack(Material.DIRT));
+        assertNull(HeldCrucialItems.getMainHand(player));
+    }
+
+    @Test
+    void unregisteringItemResolvesAgain() throws CrucialException {
+        CrucialItem item = sword("Sword");
+        item.register();
+        player.getInventory().setItemInMainHand(item.getItemStack());
+        assertSame(item, HeldCrucialItems.getMainHand(player));
+
+        item.unregister();
+        assertNull(HeldCrucialItems.getMainHand(player));
+    }
+
+    @Test
+    void registeringItemResolvesAgain() throws CrucialException {
+        CrucialItem item = sword("Sword");
+        player.getInventory().setItemInMainHand(CrucialItem.applyId(new ItemStack(Material.DIAMOND_SWORD), item.getId()));
+        assertNull(HeldCrucialItems.getMainHand(player));
+
+        item.register();
+        assertSame(item, HeldCrucialItems.getMainHand(player));
+    }
+
+    @Test
+    void removedPlayerResolvesAgain() throws CrucialException {
+        CrucialItem first = sword("First");
+        CrucialItem second = sword("Second");
+        first.register();
+        second.register();
+        player.getInventory().setItemInMainHand(first.getItemStack());
+        HeldCrucialItems.getMainHand(player);
+
+        player.getInventory().setItemInMainHand(second.getItemStack());
+        HeldCrucialItems.remove(player);
+        assertSame(second, HeldCrucialItems.getMainHand(player));
+    }
+}
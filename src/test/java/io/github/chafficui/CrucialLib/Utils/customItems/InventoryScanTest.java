@@ -0,0 +1,146 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import io.github.chafficui.CrucialLib.Main;
+import io.github.chafficui.CrucialLib.exceptions.CrucialException;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryScanTest {
+
+    private ServerMock server;
+    private PlayerMock player;
+    private CrucialItem sword;
+    private CrucialItem gem;
+
+    @BeforeEach
+    void setUp() throws CrucialException {
+        server = MockBukkit.mock();
+        MockBukkit.load(Main.class);
+        CrucialItem.CRUCIAL_ITEMS.clear();
+        player = server.addPlayer();
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        sword = new CrucialItem("Sword", Material.DIAMOND_SWORD, List.of(), recipe, "weapon", true, true, false);
+        gem = new CrucialItem("Gem", Material.EMERALD, List.of(), recipe, "gem", true, true, false);
+        sword.register();
+        gem.register();
+    }
+
+    @AfterEach
+    void tearDown() {
+        CrucialItem.CRUCIAL_ITEMS.clear();
+        MockBukkit.unmock();
+    }
+
+    private ItemStack gems(int amount) {
+        ItemStack stack = gem.getItemStack();
+        stack.setAmount(amount);
+        return stack;
+    }
+
+    @Test
+    void scanFindsItemsInStorageArmourAndOffHand() {
+        PlayerInventory inventory = player.getInventory();
+        inventory.setItem(0, sword.getItemStack());
+        inventory.setItem(5, new ItemStack(Material.EMERALD, 10));
+        inventory.setItem(20, gems(3));
+        inventory.setItemInOffHand(gems(2));
+        inventory.setHelmet(sword.getItemStack());
+
+        InventoryScan scan = InventoryScan.scan(inventory);
+
+        assertEquals(4, scan.size());
+        assertSame(sword, scan.getItemInSlot(0));
+        assertNull(scan.getItemInSlot(5));
+        assertSame(gem, scan.getItemInSlot(20));
+        assertEquals(2, scan.count(sword));
+        assertEquals(5, scan.count(gem));
+        for (int i = 0; i < scan.size(); i++) {
+            assertSame(scan.getItem(i), CrucialItem.getByStack(inventory.getItem(scan.getSlot(i))));
+        }
+    }
+
+    @Test
+    void scanOfEmptyInventoryIsEmpty() {
+        InventoryScan scan = InventoryScan.scan(player.getInventory());
+        assertTrue(scan.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> scan.getItem(0));
+    }
+
+    @Test
+    void reusedScanIsOverwritten() {
+        PlayerInventory inventory = player.getInventory();
+        for (int slot = 0; slot < 20; slot++) {
+            inventory.setItem(slot, gems(1));
+        }
+        InventoryScan scan = InventoryScan.scan(inventory);
+        assertEquals(20, scan.size());
+
+        inventory.clear();
+        inventory.setItem(7, sword.getItemStack());
+        InventoryScan reused = InventoryScan.scan(inventory, scan);
+
+        assertSame(scan, reused);
+        assertEquals(1, reused.size());
+        assertEquals(7, reused.getSlot(0));
+        assertSame(sword, reused.getItem(0));
+    }
+
+    @Test
+    void scanWorksOnNonPlayerInventories() {
+        var chest = server.createInventory(null, 27);
+        chest.setItem(26, gems(4));
+
+        InventoryScan scan = InventoryScan.scan(chest);
+        assertEquals(1, scan.size());
+        assertEquals(26, scan.getSlot(0));
+        assertEquals(4, scan.getAmount(0));
+    }
+
+    @Test
+    void countIgnoresPlainStacksOfSameMaterial() {
+        PlayerInventory inventory = player.getInventory();
+        inventory.setItem(0, gems(3));
+        inventory.setItem(1, new ItemStack(Material.EMERALD, 64));
+        inventory.setItem(2, gems(4));
+
+        assertEquals(7, InventoryScan.count(inventory, gem));
+        assertEquals(0, InventoryScan.count(inventory, sword));
+        assertEquals(0, InventoryScan.count(inventory, null));
+    }
+
+    @Test
+    void removeTakesFromLowestSlotsFirst() {
+        PlayerInventory inventory = player.getInventory();
+        inventory.setItem(0, gems(3));
+        inventory.setItem(1, new ItemStack(Material.EMERALD, 64));
+        inventory.setItem(2, gems(4));
+
+        assertEquals(5, InventoryScan.remove(inventory, gem, 5));
+
+        assertNull(CrucialItem.getByStack(inventory.getItem(0)));
+        assertEquals(64, inventory.getItem(1).getAmount());
+        assertEquals(2, inventory.getItem(2).getAmount());
+        assertEquals(2, InventoryScan.count(inventory, gem));
+    }
+
+    @Test
+    void removeReturnsWhatWasAvailable() {
+        PlayerInventory inventory = player.getInventory();
+        inventory.setItem(0, gems(3));
+
+        assertEquals(3, InventoryScan.remove(inventory, gem, 10));
+        assertEquals(0, InventoryScan.count(inventory, gem));
+        assertEquals(0, InventoryScan.remove(inventory, gem, 0));
+    }
+}
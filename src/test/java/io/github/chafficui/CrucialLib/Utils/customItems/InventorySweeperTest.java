@@ -0,0 +1,200 @@
+package io.github.chafficui.CrucialLib.Utils.customItems;
+
+import io.github.chafficui.CrucialLib.Main;
+import io.github.chafficui.CrucialLib.exceptions.CrucialException;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventorySweeperTest {
+
+    private ServerMock server;
+    private CrucialItem ticket;
+
+    @BeforeEach
+    void setUp() throws CrucialException {
+        server = MockBukkit.mock();
+        MockBukkit.load(Main.class);
+        CrucialItem.CRUCIAL_ITEMS.clear();
+        InventorySweeper.reset();
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "PAPER", "AIR", "AIR", "AIR", "AIR"};
+        ticket = new CrucialItem("Ticket", Material.PAPER, List.of(), recipe, "ticket", true, true, false);
+        ticket.register();
+    }
+
+    @AfterEach
+    void tearDown() {
+        InventorySweeper.reset();
+        CrucialItem.CRUCIAL_ITEMS.clear();
+        MockBukkit.unmock();
+    }
+
+    @Test
+    void handlerSeesEveryCrucialItem() {
+        PlayerMock player = server.addPlayer();
+        player.getInventory().setItem(3, ticket.getItemStack());
+        player.getInventory().setItem(4, new ItemStack(Material.PAPER));
+        player.getInventory().setItemInOffHand(ticket.getItemStack());
+        List<Integer> slots = new ArrayList<>();
+        InventorySweeper.addHandler((p, slot, stack, item) -> {
+            assertSame(player, p);
+            assertSame(ticket, item);
+            slots.add(slot);
+        });
+
+        InventorySweeper.tick();
+
+        assertEquals(2, slots.size());
+        assertTrue(slots.contains(3));
+    }
+
+    @Test
+    void handlerCanRemoveItems() {
+        PlayerMock player = server.addPlayer();
+        player.getInventory().setItem(0, ticket.getItemStack());
+        InventorySweeper.addHandler((p, slot, stack, item) -> p.getInventory().setItem(slot, null));
+
+        InventorySweeper.tick();
+
+        assertNull(player.getInventory().getItem(0));
+    }
+
+    @Test
+    void zeroBudgetScansOnePlayerPerTick() {
+        for (int i = 0; i < 5; i++) {
+            server.addPlayer().getInventory().setItem(0, ticket.getItemStack());
+        }
+        Set<Player> seen = new HashSet<>();
+        InventorySweeper.addHandler((p, slot, stack, item) -> seen.add(p));
+        InventorySweeper.setBudgetMicros(0);
+
+        InventorySweeper.tick();
+        assertEquals(1, seen.size());
+        assertEquals(1, InventorySweeper.getLastTickPlayers());
+        assertEquals(4, InventorySweeper.getRemainingPlayers());
+        assertEquals(0.2, InventorySweeper.getPassProgress(), 1e-9);
+
+        for (int i = 0; i < 4; i++) {
+            InventorySweeper.tick();
+        }
+        assertEquals(5, seen.size());
+        assertEquals(1, InventorySweeper.getCompletedPasses());
+        assertEquals(1.0, InventorySweeper.getPassProgress(), 1e-9);
+    }
+
+    @Test
+    void largeBudgetFinishesPassInOneTick() {
+        for (int i = 0; i < 20; i++) {
+            server.addPlayer();
+        }
+        InventorySweeper.addHandler((p, slot, stack, item) -> {
+        });
+        InventorySweeper.setBudgetMicros(10_000_000);
+
+        InventorySweeper.tick();
+
+        assertEquals(20, InventorySweeper.getLastTickPlayers());
+        assertEquals(1, InventorySweeper.getCompletedPasses());
+        assertTrue(InventorySweeper.getLastTickNanos() > 0);
+        assertTrue(InventorySweeper.getAverageTickNanos() > 0);
+    }
+
+    @Test
+    void failingHandlerDoesNotStopSweep() {
+        server.addPlayer().getInventory().setItem(0, ticket.getItemStack());
+        List<CrucialItem> found = new ArrayList<>();
+        InventorySweeper.addHandler((p, slot, stack, item) -> {
+            throw new IllegalStateException("boom");
+        });
+        InventorySweeper.addHandler((p, slot, stack, item) -> found.add(item));
+
+        InventorySweeper.tick();
+
+        assertEquals(List.of(ticket), found);
+    }
+
+    @Test
+    void taskRunsWhileHandlersAreRegistered() {
+        server.addPlayer().getInventory().setItem(0, ticket.getItemStack());
+        List<CrucialItem> found = new ArrayList<>();
+        InventorySweeper.Handler handler = (p, slot, stack, item) -> found.add(item);
+
+        InventorySweeper.addHandler(handler);
+        assertTrue(InventorySweeper.isRunning());
+        server.getScheduler().performTicks(3);
+        assertFalse(found.isEmpty());
+
+        InventorySweeper.removeHandler(handler);
+        assertFalse(InventorySweeper.isRunning());
+        int before = found.size();
+        server.getScheduler().performTicks(3);
+        assertEquals(before, found.size());
+    }
+
+    @Test
+    void budgetDefaultsFromConfig() {
+        assertEquals(500, InventorySweeper.getBudgetMicros());
+    }
+
+    @Test
+    void intervalDefaultsFromConfig() {
+        assertEquals(100, InventorySweeper.getIntervalTicks());
+    }
+
+    @Test
+    void nextPassWaitsForInterval() {
+        server.addPlayer().getInventory().setItem(0, ticket.getItemStack());
+        List<CrucialItem> found = new ArrayList<>();
+        InventorySweeper.addHandler((p, slot, stack, item) -> found.add(item));
+        InventorySweeper.setIntervalTicks(5);
+
+        InventorySweeper.tick();
+        assertEquals(1, found.size());
+        assertEquals(1, InventorySweeper.getCompletedPasses());
+
+        for (int i = 0; i < 4; i++) {
+            InventorySweeper.tick();
+        }
+        assertEquals(1, found.size());
+
+        InventorySweeper.tick();
+        assertEquals(2, found.size());
+        assertEquals(2, InventorySweeper.getCompletedPasses());
+    }
+
+    @Test
+    void handlerRemovingItselfStopsAfterCurrentPlayer() {
+        for (int i = 0; i < 3; i++) {
+            server.addPlayer().getInventory().setItem(0, ticket.getItemStack());
+        }
+        List<Player> seen = new ArrayList<>();
+        InventorySweeper.Handler[] handler = new InventorySweeper.Handler[1];
+        handler[0] = (p, slot, stack, item) -> {
+            seen.add(p);
+            InventorySweeper.removeHandler(handler[0]);
+            assertTrue(InventorySweeper.isRunning());
+        };
+        InventorySweeper.addHandler(handler[0]);
+        InventorySweeper.setBudgetMicros(10_000_000);
+
+        InventorySweeper.tick();
+
+        assertEquals(1, seen.size());
+        assertFalse(InventorySweeper.isRunning());
+        assertEquals(0, InventorySweeper.getCompletedPasses());
+        assertEquals(0, InventorySweeper.getRemainingPlayers());
+    }
+}
@@ -32,6 +32,7 @@ class ItemTest {
 
     @AfterEach
     void tearDown() {
+        Item.setQuiet(false);
         MockBukkit.unmock();
     }
 
@@ -103,4 +104,40 @@ class ItemTest {
         Bukkit.removeRecipe(key);
         assertNull(Bukkit.getRecipe(key));
     }
+
+    @Test
+    void createItemWithUnknownMaterialThrows() {
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "NOT_A_MATERIAL", "AIR", "AIR", "AIR", "AIR"};
+        assertThrows(CrucialException.class,
+                () -> Item.createItem("badkey", "BadItem", List.of(), Material.DIAMOND, recipe));
+    }
+
+    @Test
+    void createItemFromCompiledRecipe() throws CrucialException {
+        CrucialRecipe recipe = CrucialRecipe.shaped("AIR", "AIR", "AIR", "AIR", "COAL", "AIR", "AIR", "AIR", "AIR");
+        NamespacedKey first = Item.createItem("first", "Coal Item", new ItemStack(Material.COAL_BLOCK), recipe);
+        NamespacedKey second = Item.createItem("second", "Coal Item", new ItemStack(Material.COAL_BLOCK), recipe);
+
+        assertNotEquals(first, second);
+        assertNotNull(Bukkit.getRecipe(first));
+        assertNotNull(Bukkit.getRecipe(second));
+    }
+
+    @Test
+    void quietModeStillRegistersRecipes() throws CrucialException {
+        Item.setQuiet(true);
+        String[] recipe = new String[]{"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+        NamespacedKey key = Item.createItem("quiet", "QuietItem", List.of(), Material.DIAMOND, recipe);
+        server.getScheduler().performOneTick();
+
+        assertTrue(Item.isQuiet());
+        assertNotNull(Bukkit.getRecipe(key));
+    }
+
+    @Test
+    void sanitizeMatchesKeyRules() {
+        assertEquals("my_item", Item.sanitize("My Item", false));
+        assertEquals("a:b", Item.sanitize("A:B", false));
+        assertEquals("uuid.type_x", Item.sanitize("UUID:Type X", true));
+    }
 }
@@ -3,13 +3,19 @@ package io.github.chafficui.CrucialLib.Utils.player.inventory;
 import io.github.chafficui.CrucialLib.Main;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockbukkit.mockbukkit.MockBukkit;
 import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,9 +39,18 @@ class PageTest {
     // --- Constructor and size validation ---
 
     @Test
-    void constructorRegistersPageInStaticList() {
+    void constructorDoesNotRegisterPage() {
         Page page = new Page(1, "Test", Material.GRAY_STAINED_GLASS_PANE);
+        assertFalse(Page.pages.contains(page));
+        assertTrue(page.isReleased());
+    }
+
+    @Test
+    void openRegistersPageInStaticList() {
+        Page page = new Page(1, "Test", Material.GRAY_STAINED_GLASS_PANE);
+        page.open(server.addPlayer());
         assertTrue(Page.pages.contains(page));
+        assertFalse(page.isReleased());
     }
 
     @Test
@@ -67,6 +82,18 @@ class PageTest {
         assertNotNull(page.getInventory());
     }
 
+    @Test
+    void inventoryIsCreatedBeforeOpen() {
+        Page page = new Page(1, "Inventory", Material.GRAY_STAINED_GLASS_PANE);
+        Inventory inventory = page.getInventory();
+
+        assertNotNull(inventory);
+        assertSame(page, Page.get(inventory));
+        assertTrue(page.isReleased());
+        page.open(server.addPlayer());
+        assertSame(inventory, page.getInventory());
+    }
+
     @Test
     void openedInventoryHasCorrectSize() {
         Page page = new Page(2, "Small", Material.GRAY_STAINED_GLASS_PANE);
@@ -112,10 +139,30 @@ class PageTest {
         assertTrue(Page.exists(page.getInventory()));
     }
 
+    @Test
+    void pageHoldsItsInventory() {
+        Page page = new Page(1, "Holder", Material.GRAY_STAINED_GLASS_PANE);
+        page.open(server.addPlayer());
+
+        assertSame(page, page.getInventory().getHolder());
+    }
+
+    @Test
+    void getRejectsOtherInventories() {
+        new Page(1, "Page", Material.GRAY_STAINED_GLASS_PANE).open(server.addPlayer());
+        Inventory chest = server.createInventory(null, 27, "Chest");
+
+        assertNull(Page.get(chest));
+        assertNull(Page.get(null));
+        assertFalse(Page.exists(chest));
+    }
+
     @Test
     void getByIndexReturnsCorrectPage() {
         Page first = new Page(1, "First", Material.GRAY_STAINED_GLASS_PANE);
         Page second = new Page(2, "Second", Material.GRAY_STAINED_GLASS_PANE);
+        first.open(server.addPlayer());
+        second.open(server.addPlayer());
 
         assertSame(first, Page.get(0));
         assertSame(second, Page.get(1));
@@ -133,6 +180,175 @@ class PageTest {
         assertNull(page.getInventoryItem(item.getItem()));
     }
 
+    @Test
+    void getInventoryItemBySlot() {
+        Page page = new Page(3, "Slots", Material.GRAY_STAINED_GLASS_PANE);
+        InventoryItem item = new InventoryItem(13, new ItemStack(Material.DIAMOND), click -> {});
+        page.addItem(item);
+
+        assertSame(item, page.getInventoryItem(13));
+        assertNull(page.getInventoryItem(12));
+        assertNull(page.getInventoryItem(-1));
+        assertNull(page.getInventoryItem(27));
+    }
+
+    @Test
+    void lastItemAddedToSlotWins() {
+        Page page = new Page(1, "Slots", Material.GRAY_STAINED_GLASS_PANE);
+        InventoryItem first = new InventoryItem(4, new ItemStack(Material.DIAMOND), click -> {});
+        InventoryItem second = new InventoryItem(4, new ItemStack(Material.EMERALD), click -> {});
+        page.addItems(first, second);
+
+        assertSame(second, page.getInventoryItem(4));
+        page.removeItem(second);
+        assertSame(first, page.getInventoryItem(4));
+    }
+
+    @Test
+    void itemOutsidePageIsRejected() {
+        Page page = new Page(1, "Slots", Material.GRAY_STAINED_GLASS_PANE);
+        assertThrows(IllegalArgumentException.class,
+                () -> page.addItem(new InventoryItem(9, new ItemStack(Material.DIAMOND), click -> {})));
+    }
+
+    @Test
+    void clickDispatchesToItemInSlot() {
+        int[] clicks = new int[1];
+        Page page = new Page(1, "Click", Material.GRAY_STAINED_GLASS_PANE) {
+            @Override
+            public void populate() {
+                addItem(new InventoryItem(4, new ItemStack(Material.DIAMOND), click -> clicks[0]++));
+            }
+        };
+        PlayerMock player = server.addPlayer();
+        page.open(player);
+
+        InventoryClickEvent event = new InventoryClickEvent(player.getOpenInventory(),
+                InventoryType.SlotType.CONTAINER, 4, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+        page.click(event);
+
+        assertEquals(1, clicks[0]);
+        assertTrue(event.isCancelled());
+    }
+
+    // --- Rendering ---
+
+    @Test
+    void reloadOnlyUpdatesChangedSlots() {
+        boolean[] on = {false};
+        Page page = new Page(1, "Toggle", Material.GRAY_STAINED_GLASS_PANE) {
+            @Override
+            public void populate() {
+                addItem(new InventoryItem(2, new ItemStack(Material.DIAMOND), click -> {}));
+                addItem(new InventoryItem(4, new ItemStack(on[0] ? Material.LIME_DYE : Material.GRAY_DYE), click -> {}));
+            }
+        };
+        page.open(server.addPlayer());
+        Inventory inv = page.getInventory();
+        ItemStack unchanged = inv.getItem(2);
+
+        on[0] = true;
+        page.reloadInventory();
+
+        assertSame(unchanged, inv.getItem(2));
+        assertEquals(Material.LIME_DYE, inv.getItem(4).getType());
+        assertEquals(Material.GRAY_STAINED_GLASS_PANE, inv.getItem(0).getType());
+    }
+
+    @Test
+    void removedItemIsReplacedByFill() {
+        boolean[] shown = {true};
+        Page page = new Page(1, "Remove", Material.GRAY_STAINED_GLASS_PANE) {
+            @Override
+            public void populate() {
+                if (shown[0]) {
+                    addItem(new InventoryItem(3, new ItemStack(Material.DIAMOND), click -> {}));
+                }
+            }
+        };
+        page.open(server.addPlayer());
+        shown[0] = false;
+        page.reloadInventory();
+
+        assertEquals(Material.GRAY_STAINED_GLASS_PANE, page.getInventory().getItem(3).getType());
+    }
+
+    @Test
+    void setItemUpdatesSlotWithoutPopulating() {
+        int[] populated = {0};
+        Page page = new Page(1, "Slots", Material.GRAY_STAINED_GLASS_PANE) {
+            @Override
+            public void populate() {
+                populated[0]++;
+                addItem(new InventoryItem(2, new ItemStack(Material.DIAMOND), click -> {}));
+            }
+        };
+        page.open(server.addPlayer());
+        Inventory inv = page.getInventory();
+        ItemStack unchanged = inv.getItem(0);
+
+        InventoryItem emerald = new InventoryItem(2, new ItemStack(Material.EMERALD), click -> {});
+        page.setItem(emerald);
+
+        assertEquals(1, populated[0]);
+        assertSame(emerald, page.getInventoryItem(2));
+        assertEquals(Material.EMERALD, inv.getItem(2).getType());
+        assertSame(unchanged, inv.getItem(0));
+        assertEquals(1, page.inventoryItems.stream().filter(item -> item.getSlot() == 2).count());
+    }
+
+    @Test
+    void clearSlotShowsFill() {
+        Page page = new Page(1, "Slots", Material.GRAY_STAINED_GLASS_PANE) {
+            @Override
+            public void populate() {
+                addItem(new InventoryItem(2, new ItemStack(Material.DIAMOND), click -> {}));
+            }
+        };
+        page.open(server.addPlayer());
+
+        page.clearSlot(2);
+
+        assertNull(page.getInventoryItem(2));
+        assertEquals(Material.GRAY_STAINED_GLASS_PANE, page.getInventory().getItem(2).getType());
+    }
+
+    @Test
+    void updateSlotRendersChangedStack() {
+        InventoryItem item = new InventoryItem(2, new ItemStack(Material.DIAMOND), click -> {});
+        Page page = new Page(1, "Slots", Material.GRAY_STAINED_GLASS_PANE) {
+            @Override
+            public void populate() {
+                addItem(item);
+            }
+        };
+        page.open(server.addPlayer());
+
+        item.getItem().setAmount(5);
+        page.updateSlot(2);
+
+        assertEquals(5, page.getInventory().getItem(2).getAmount());
+    }
+
+    @Test
+    void slotOperationsRejectSlotsOutsidePage() {
+        Page page = new Page(1, "Slots", Material.GRAY_STAINED_GLASS_PANE);
+
+        assertThrows(IllegalArgumentException.class, () -> page.clearSlot(9));
+        assertThrows(IllegalArgumentException.class, () -> page.updateSlot(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> page.setItem(new InventoryItem(9, new ItemStack(Material.DIAMOND), click -> {})));
+    }
+
+    @Test
+    void fillStackIsBuiltOncePerMaterial() {
+        ItemStack fill = Page.getFillStack(Material.BLACK_STAINED_GLASS_PANE);
+
+        assertSame(fill, Page.getFillStack(Material.BLACK_STAINED_GLASS_PANE));
+        assertTrue(InventoryItem.isInventoryItem(fill));
+        assertNull(Page.getFillStack(Material.AIR));
+    }
+
     // --- Extra data ---
 
     @Test
@@ -172,6 +388,24 @@ class PageTest {
         assertNotNull(result);
     }
 
+    @Test
+    void getInventoryItemFindsItemByItsSlotTag() {
+        InventoryItem button = new InventoryItem(4, Material.DIAMOND, "Button", null, click -> {});
+        InventoryItem other = new InventoryItem(5, Material.DIAMOND, "Button", null, click -> {});
+        Page page = new Page(1, "Stack", Material.GRAY_STAINED_GLASS_PANE) {
+            @Override
+            public void populate() {
+                addItems(button, other);
+            }
+        };
+        page.open(server.addPlayer());
+
+        assertEquals(4, InventoryItem.getSlot(button.getItem()));
+        assertSame(button, page.getInventoryItem(button.getItem().clone()));
+        assertSame(other, page.getInventoryItem(other.getItem().clone()));
+        assertEquals(-1, InventoryItem.getSlot(new ItemStack(Material.DIAMOND)));
+    }
+
     @Test
     void getInventoryItemReturnsNullForUnknownItem() {
         Page page = new Page(1, "Unknown", Material.GRAY_STAINED_GLASS_PANE);
@@ -182,4 +416,96 @@ class PageTest {
         InventoryItem result = page.getInventoryItem(unknown);
         assertNull(result);
     }
+
+    // --- Lifecycle ---
+
+    @Test
+    void closingLastViewerReleasesPage() {
+        Page page = new Page(1, "Menu", Material.GRAY_STAINED_GLASS_PANE);
+        PlayerMock player = server.addPlayer();
+        page.open(player);
+        player.closeInventory();
+
+        assertTrue(page.isReleased());
+        assertFalse(Page.pages.contains(page));
+        assertEquals(0, Page.getLivePages());
+    }
+
+    @Test
+    void reopeningRegistersPageAgain() {
+        Page page = new Page(1, "Menu", Material.GRAY_STAINED_GLASS_PANE);
+        PlayerMock player = server.addPlayer();
+        page.open(player);
+        player.closeInventory();
+        page.open(player);
+
+        assertFalse(page.isReleased());
+        assertEquals(1, Page.pages.stream().filter(p -> p == page).count());
+    }
+
+    @Test
+    void reopeningOpenPageDoesNotReleaseIt() {
+        Page page = new Page(1, "Menu", Material.GRAY_STAINED_GLASS_PANE);
+        PlayerMock player = server.addPlayer();
+        page.open(player);
+        page.open(player);
+
+        assertFalse(page.isReleased());
+        assertTrue(Page.pages.contains(page));
+    }
+
+    @Test
+    void viewersShareOneInventory() {
+        Page page = new Page(1, "Menu", Material.GRAY_STAINED_GLASS_PANE);
+        PlayerMock first = server.addPlayer();
+        PlayerMock second = server.addPlayer();
+        page.open(first);
+        page.open(second);
+
+        assertSame(first.getOpenInventory().getTopInventory(), second.getOpenInventory().getTopInventory());
+        second.closeInventory();
+        assertFalse(page.isReleased());
+        first.closeInventory();
+        assertTrue(page.isReleased());
+    }
+
+    @Test
+    void quitReleasesPage() {
+        Page page = new Page(1, "Menu", Material.GRAY_STAINED_GLASS_PANE);
+        PlayerMock player = server.addPlayer();
+        page.open(player);
+        player.disconnect();
+
+        assertTrue(page.isReleased());
+    }
+
+    @Test
+    void disablingOwnerClosesAndReleasesPages() {
+        Plugin owner = MockBukkit.createMockPlugin();
+        Page owned = new Page(owner, 1, "Owned", Material.GRAY_STAINED_GLASS_PANE);
+        Page other = new Page(1, "Other", Material.GRAY_STAINED_GLASS_PANE);
+        PlayerMock player = server.addPlayer();
+        owned.open(player);
+        other.open(server.addPlayer());
+
+        server.getPluginManager().disablePlugin(owner);
+
+        assertSame(owner, owned.getOwner());
+        assertTrue(owned.isReleased());
+        assertFalse(other.isReleased());
+        assertNotSame(owned, Page.get(player.getOpenInventory().getTopInventory()));
+    }
+
+    @Test
+    void releaseIsCountedOnce() {
+        long created = Page.getCreatedPages();
+        long released = Page.getReleasedPages();
+        Page page = new Page(1, "Menu", Material.GRAY_STAINED_GLASS_PANE);
+        page.open(server.addPlayer());
+        page.release();
+        page.release();
+
+        assertEquals(created + 1, Page.getCreatedPages());
+        assertEquals(released + 1, Page.getReleasedPages());
+    }
 }
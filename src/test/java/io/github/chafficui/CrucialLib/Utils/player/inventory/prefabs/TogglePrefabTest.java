@@ -0,0 +1,107 @@
+package io.github.chafficui.CrucialLib.Utils.player.inventory.prefabs;
+
+import io.github.chafficui.CrucialLib.Main;
+import io.github.chafficui.CrucialLib.Utils.player.inventory.InventoryItem;
+import io.github.chafficui.CrucialLib.Utils.player.inventory.Page;
+import org.bukkit.Material;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TogglePrefabTest {
+
+    private ServerMock server;
+
+    @BeforeEach
+    void setUp() {
+        server = MockBukkit.mock();
+        MockBukkit.load(Main.class);
+        Page.pages.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Page.pages.clear();
+        MockBukkit.unmock();
+    }
+
+    @Test
+    void getItemsReturnsCurrentButton() {
+        InventoryItem[] off = new TogglePrefab(4, click -> {}, click -> {}, false).getItems();
+        InventoryItem[] on = new TogglePrefab(4, click -> {}, click -> {}, true).getItems();
+
+        assertEquals(1, off.length);
+        assertEquals(Material.RED_WOOL, off[0].getMaterial());
+        assertEquals(1, on.length);
+        assertEquals(Material.GREEN_WOOL, on[0].getMaterial());
+    }
+
+    @Test
+    void defaultStateIsOff() {
+        assertFalse(new TogglePrefab(4, click -> {}, click -> {}).isOn());
+    }
+
+    @Test
+    void toggleUpdatesOnlyItsSlot() {
+        AtomicInteger populated = new AtomicInteger();
+        AtomicInteger turnedOn = new AtomicInteger();
+        AtomicInteger turnedOff = new AtomicInteger();
+        TogglePrefab toggle = new TogglePrefab(4, click -> turnedOn.incrementAndGet(), click -> turnedOff.incrementAndGet());
+        Page page = new Page(1, "Toggle", Material.GRAY_STAINED_GLASS_PANE) {
+            @Override
+            public void populate() {
+                populated.incrementAndGet();
+                addItems(toggle);
+            }
+        };
+        PlayerMock player = server.addPlayer();
+        page.open(player);
+
+        click(page, player, 4);
+
+        assertTrue(toggle.isOn());
+        assertEquals(1, turnedOn.get());
+        assertEquals(Material.GREEN_WOOL, page.getInventory().getItem(4).getType());
+        assertEquals(1, populated.get());
+
+        click(page, player, 4);
+
+        assertFalse(toggle.isOn());
+        assertEquals(1, turnedOff.get());
+        assertEquals(Material.RED_WOOL, page.getInventory().getItem(4).getType());
+    }
+
+    @Test
+    void reloadKeepsToggledState() {
+        TogglePrefab toggle = new TogglePrefab(4, click -> {}, click -> {});
+        Page page = new Page(1, "Toggle", Material.GRAY_STAINED_GLASS_PANE) {
+            @Override
+            public void populate() {
+                addItems(toggle);
+            }
+        };
+        PlayerMock player = server.addPlayer();
+        page.open(player);
+        click(page, player, 4);
+
+        page.reloadInventory();
+
+        assertEquals(Material.GREEN_WOOL, page.getInventory().getItem(4).getType());
+    }
+
+    private void click(Page page, PlayerMock player, int slot) {
+        page.click(new InventoryClickEvent(player.getOpenInventory(),
+                InventoryType.SlotType.CONTAINER, slot, ClickType.LEFT, InventoryAction.PICKUP_ALL));
+    }
+}
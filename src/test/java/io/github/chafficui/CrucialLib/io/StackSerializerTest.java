@@ -0,0 +1,182 @@
+package io.github.chafficui.CrucialLib.io;
+
+import io.github.chafficui.CrucialLib.Main;
+import io.github.chafficui.CrucialLib.Utils.CrucialKeys;
+import io.github.chafficui.CrucialLib.Utils.customItems.CrucialItem;
+import io.github.chafficui.CrucialLib.exceptions.CrucialException;
+import org.bukkit.Material;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StackSerializerTest {
+
+    private static final Logger LOGGER = Logger.getLogger(StackSerializerTest.class.getName());
+    private static final String[] RECIPE = {"AIR", "AIR", "AIR", "AIR", "DIAMOND", "AIR", "AIR", "AIR", "AIR"};
+
+    private CrucialItem sword;
+
+    @BeforeEach
+    void setUp() throws CrucialException {
+        MockBukkit.mock();
+        MockBukkit.load(Main.class);
+        CrucialItem.CRUCIAL_ITEMS.clear();
+        sword = new CrucialItem("Ruby Sword", Material.DIAMOND_SWORD, List.of("Sharp", "Red"), RECIPE, "weapon", true, true, false);
+        sword.register();
+    }
+
+    @AfterEach
+    void tearDown() {
+        CrucialItem.CRUCIAL_ITEMS.clear();
+        MockBukkit.unmock();
+    }
+
+    private ItemStack swords(int amount) {
+        ItemStack stack = sword.getItemStack();
+        stack.setAmount(amount);
+        return stack;
+    }
+
+    private ItemStack damaged(int damage) {
+        ItemStack stack = sword.getItemStack();
+        ItemMeta meta = stack.getItemMeta();
+        ((Damageable) meta).setDamage(damage);
+        stack.setItemMeta(meta);
+        return stack;
+    }
+
+    @Test
+    void crucialStacksRoundTrip() throws IOException {
+        ItemStack[] stacks = {swords(3), null, damaged(120), new ItemStack(Material.AIR)};
+        ItemStack[] read = StackSerializer.deserialize(StackSerializer.serialize(stacks));
+
+        assertEquals(4, read.length);
+        assertEquals(stacks[0], read[0]);
+        assertNull(read[1]);
+        assertEquals(stacks[2], read[2]);
+        assertEquals(120, ((Damageable) read[2].getItemMeta()).getDamage());
+        assertNull(read[3]);
+        assertSame(sword, CrucialItem.getByStack(read[0]));
+    }
+
+    @Test
+    void repeatedCrucialStackTakesEighteenBytes() throws IOException {
+        byte[] one = StackSerializer.serialize(new ItemStack[]{swords(1)});
+        byte[] two = StackSerializer.serialize(new ItemStack[]{swords(1), swords(7)});
+
+        assertEquals(18, two.length - one.length);
+    }
+
+    @Test
+    void otherStacksFallBackToFullSerialization() throws IOException {
+        ItemStack plain = new ItemStack(Material.OAK_LOG, 12);
+        ItemStack renamed = sword.getItemStack();
+        ItemMeta meta = renamed.getItemMeta();
+        meta.setDisplayName("Renamed");
+        renamed.setItemMeta(meta);
+
+        ItemStack[] read = StackSerializer.fromBase64(StackSerializer.toBase64(new ItemStack[]{plain, renamed}));
+
+        assertEquals(plain, read[0]);
+        assertEquals(renamed, read[1]);
+    }
+
+    @Test
+    void unregisteredItemIsRebuiltFromStoredStack() throws IOException {
+        ItemStack[] stacks = {swords(2), damaged(40), swords(5)};
+        byte[] data = StackSerializer.serialize(stacks);
+        sword.unregister();
+
+        ItemStack[] read = StackSerializer.deserialize(data);
+
+        assertArrayEquals(stacks, read);
+        assertEquals(sword.getId(), CrucialItem.getId(read[2]));
+    }
+
+    @Test
+    void singleStackCarriesItsStoredStack() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ItemStack stack = swords(3);
+        StackSerializer.write(new DataOutputStream(bytes), stack);
+        sword.unregister();
+
+        assertEquals(stack, StackSerializer.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    }
+
+    @Test
+    void unknownItemWithoutStoredStackIsRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(0xC5);
+        out.writeByte(1);
+        out.writeInt(1);
+        out.writeByte(1);
+        out.writeLong(1);
+        out.writeLong(2);
+        out.writeByte(1);
+
+        assertThrows(IOException.class, () -> StackSerializer.deserialize(bytes.toByteArray()));
+    }
+
+    @Test
+    void serializeDoesNotModifyLegacyStacks() throws IOException {
+        ItemStack legacy = new ItemStack(Material.DIAMOND_SWORD);
+        ItemMeta meta = legacy.getItemMeta();
+        meta.getPersistentDataContainer().set(CrucialKeys.getLegacyItemIdKey(), PersistentDataType.STRING, sword.getId().toString());
+        legacy.setItemMeta(meta);
+        ItemStack before = legacy.clone();
+
+        StackSerializer.serialize(new ItemStack[]{legacy});
+
+        assertEquals(before, legacy);
+    }
+
+    @Test
+    void invalidDataIsRejected() {
+        assertThrows(IOException.class, () -> StackSerializer.deserialize(new byte[]{1, 2, 3}));
+        assertThrows(IOException.class, () -> StackSerializer.fromBase64("not base64!"));
+    }
+
+    @Test
+    void muchSmallerThanYaml() throws IOException {
+        ItemStack[] stash = new ItemStack[1000];
+        for (int i = 0; i < stash.length; i++) {
+            stash[i] = i % 10 == 0 ? damaged(i) : swords(1 + i % 64);
+        }
+
+        long start = System.nanoTime();
+        byte[] binary = StackSerializer.serialize(stash);
+        ItemStack[] read = StackSerializer.deserialize(binary);
+        long binaryNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("stash", Arrays.asList(stash));
+        int yamlBytes = yaml.saveToString().getBytes(StandardCharsets.UTF_8).length;
+        long yamlNanos = System.nanoTime() - start;
+
+        assertArrayEquals(stash, read);
+        assertTrue(binary.length * 5 < yamlBytes);
+        // Throughput depends on the machine, so it is only reported, never asserted.
+        LOGGER.info(() -> String.format("%d stacks: binary %d bytes, %d us round trip; YAML %d bytes, %d us to save",
+                stash.length, binary.length, binaryNanos / 1000, yamlBytes, yamlNanos / 1000));
+    }
+}